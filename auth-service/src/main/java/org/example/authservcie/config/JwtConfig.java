@@ -6,20 +6,12 @@ import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class JwtConfig {
-    @Value("${jwt.secret}")
-    private String secret;
-
     @Value("${jwt.access-expiration}")
     private Long accessExpiration;
 
     @Value("${jwt.refresh-expiration}")
     private Long refreshExpiration;
 
-    @Bean
-    public String jwtSecret(){
-        return secret;
-    }
-
     @Bean
     public Long refreshExpiration() {
         return refreshExpiration;
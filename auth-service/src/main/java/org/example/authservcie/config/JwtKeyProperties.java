@@ -0,0 +1,44 @@
+package org.example.authservcie.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ключи подписи токенов. Смена ключа без простоя: новый ключ добавляется в keys и
+ * публикуется в JWKS, после интервала обновления у проверяющих он становится active-key-id,
+ * а прежний убирается из списка, когда истекут выпущенные им токены.
+ */
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "jwt.signing")
+public class JwtKeyProperties {
+    // kid ключа, которым подписываются новые токены
+    private String activeKeyId;
+
+    private List<Key> keys = new ArrayList<>();
+
+    // Сколько проверяющие могут держать JWKS без перезапроса
+    private Duration jwksMaxAge = Duration.ofMinutes(5);
+
+    @Setter
+    @Getter
+    public static class Key {
+        private String id;
+
+        // EdDSA (Ed25519) или ES256 (P-256)
+        private String algorithm = "EdDSA";
+
+        // PKCS#8 в Base64; у ключа, который только проверяет, может отсутствовать
+        private String privateKey;
+
+        // X.509 SubjectPublicKeyInfo в Base64
+        private String publicKey;
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.authservcie.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "auth.login-attempts")
+public class LoginAttemptProperties {
+    // Окно, в котором считаются неудачные входы
+    private Duration window = Duration.ofMinutes(15);
+
+    // Точность окна: число корзин в кольце
+    private int buckets = 15;
+
+    private int maxEmailFailures = 5;
+
+    // Выше, чем для email: за одним адресом бывает NAT
+    private int maxIpFailures = 50;
+
+    // Блокировка после порога, удваивается с каждой следующей неудачей
+    private Duration lockout = Duration.ofSeconds(30);
+
+    private Duration maxLockout = Duration.ofMinutes(15);
+
+    // Предел числа отслеживаемых email и IP, каждого вида
+    private long maxTrackedKeys = 100_000;
+}
@@ -0,0 +1,25 @@
+package org.example.authservcie.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "auth.outbox")
+public class OutboxProperties {
+    // Событий в одном запросе к user-service
+    private int batchSize = 100;
+
+    // Задержка первого повтора, дальше удваивается
+    private Duration initialBackoff = Duration.ofSeconds(1);
+
+    private Duration maxBackoff = Duration.ofMinutes(5);
+
+    // После стольких неудачных попыток событие откладывается (parked_at) и больше не доставляется
+    private int maxAttempts = 20;
+}
@@ -0,0 +1,26 @@
+package org.example.authservcie.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "auth.password-encoder")
+public class PasswordEncoderProperties {
+    // Алгоритм новых хешей: bcrypt или pbkdf2
+    private String algorithm = "bcrypt";
+
+    private int bcryptStrength = 10;
+
+    // Замерить при старте стоимость BCrypt под targetHashTime и записать рекомендацию в лог;
+    // хеши всегда считаются с bcryptStrength
+    private boolean calibrate = false;
+    private Duration targetHashTime = Duration.ofMillis(250);
+    private int minBcryptStrength = 10;
+    private int maxBcryptStrength = 14;
+}
@@ -0,0 +1,23 @@
+package org.example.authservcie.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "auth.password-hashing")
+public class PasswordHashingProperties {
+    // 0 - по числу ядер: хеширование упирается в CPU, больше потоков не ускорит
+    private int threads = 0;
+
+    // Запросы сверх очереди сразу получают 503
+    private int queueCapacity = 64;
+
+    // Сколько запрос ждёт результата, включая время в очереди
+    private Duration timeout = Duration.ofSeconds(2);
+}
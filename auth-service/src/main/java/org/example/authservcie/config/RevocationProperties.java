@@ -0,0 +1,17 @@
+package org.example.authservcie.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "auth.revocation")
+public class RevocationProperties {
+    // На сколько отзывов рассчитан фильтр; при перестроении растёт по факту
+    private long expectedRevocations = 100_000;
+
+    private double falsePositiveRate = 0.01;
+}
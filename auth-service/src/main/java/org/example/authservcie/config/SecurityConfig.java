@@ -1,6 +1,9 @@
 package org.example.authservcie.config;
 
 import lombok.RequiredArgsConstructor;
+import org.example.authservcie.model.Role;
+import org.example.authservcie.security.BCryptCostCalibrator;
+import org.example.authservcie.security.ExactCostBCryptPasswordEncoder;
 import org.example.authservcie.security.JwtAuthFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -9,10 +12,15 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 @RequiredArgsConstructor
@@ -24,7 +32,8 @@ public class SecurityConfig {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
-                                .requestMatchers("/auth/*").permitAll()
+                                .requestMatchers("/auth/import").hasAuthority(Role.ADMIN.name())
+                                .requestMatchers("/auth/*", "/auth/validate/batch", "/auth/revocations/**", "/auth/.well-known/**").permitAll()
                                 .anyRequest().authenticated()
                 )
                 .sessionManagement(sess -> sess
@@ -33,8 +42,30 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Хеши хранятся с префиксом алгоритма ({bcrypt}, {pbkdf2}), поэтому алгоритм и стоимость
+     * можно менять без сброса паролей: хеш обновляется при следующем входе пользователя.
+     * Хеши без префикса, созданные до перехода, проверяются как BCrypt.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordEncoderProperties properties) {
+        // Стоимость общая для всех экземпляров: иначе хеши перехешировались бы туда-обратно
+        // при входах через разные экземпляры. Калибровка только подсказывает значение.
+        int strength = properties.getBcryptStrength();
+        if (properties.isCalibrate()) {
+            BCryptCostCalibrator.recommend(properties.getMinBcryptStrength(),
+                    properties.getMaxBcryptStrength(), properties.getTargetHashTime(), strength);
+        }
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", new ExactCostBCryptPasswordEncoder(strength));
+        encoders.put("pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+
+        if (!encoders.containsKey(properties.getAlgorithm())) {
+            throw new IllegalStateException("Unsupported auth.password-encoder.algorithm: " + properties.getAlgorithm());
+        }
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(properties.getAlgorithm(), encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return passwordEncoder;
     }
 }
@@ -0,0 +1,18 @@
+package org.example.authservcie.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "auth.token-batch")
+public class TokenBatchProperties {
+    // Больше токенов в одном запросе - 400
+    private int maxSize = 100;
+
+    // 0 - по числу ядер: проверка подписи упирается в CPU
+    private int parallelism = 0;
+}
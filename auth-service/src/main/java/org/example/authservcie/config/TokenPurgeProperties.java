@@ -0,0 +1,20 @@
+package org.example.authservcie.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "auth.token-purge")
+public class TokenPurgeProperties {
+    // Строк в одном DELETE: держит транзакцию и блокировки короткими
+    private int batchSize = 1000;
+
+    // Пауза между пачками, чтобы не забирать ввод-вывод у входов и обновлений токенов
+    private Duration pause = Duration.ofMillis(200);
+}
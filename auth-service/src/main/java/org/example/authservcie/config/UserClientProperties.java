@@ -0,0 +1,63 @@
+package org.example.authservcie.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "auth.user-client")
+public class UserClientProperties {
+    private int maxConnections = 50;
+
+    // Все вызовы идут в один сервис, поэтому лимит на маршрут близок к общему
+    private int maxConnectionsPerRoute = 40;
+
+    private Duration connectTimeout = Duration.ofSeconds(1);
+
+    private Duration readTimeout = Duration.ofSeconds(3);
+
+    // Ожидание свободного соединения в пуле
+    private Duration connectionRequestTimeout = Duration.ofMillis(500);
+
+    // Соединения пересоздаются, чтобы подхватывать новые экземпляры за балансировщиком
+    private Duration connectionTtl = Duration.ofMinutes(5);
+
+    private Duration idleTimeout = Duration.ofSeconds(30);
+
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    private Bulkhead bulkhead = new Bulkhead();
+
+    @Setter
+    @Getter
+    public static class CircuitBreaker {
+        private float failureRateThreshold = 50;
+
+        private float slowCallRateThreshold = 80;
+
+        private Duration slowCallDurationThreshold = Duration.ofSeconds(2);
+
+        // Окно из последних вызовов, по которому считаются доли ошибок и медленных
+        private int slidingWindowSize = 20;
+
+        private int minimumNumberOfCalls = 10;
+
+        private Duration waitDurationInOpenState = Duration.ofSeconds(10);
+
+        private int permittedCallsInHalfOpenState = 3;
+    }
+
+    @Setter
+    @Getter
+    public static class Bulkhead {
+        // Не больше соединений на маршрут, чтобы вызовы не ждали пул
+        private int maxConcurrentCalls = 20;
+
+        private Duration maxWaitDuration = Duration.ZERO;
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.authservcie.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "auth.import")
+public class UserImportProperties {
+    // Строк на одну проверку email, одну транзакцию и один JDBC batch
+    private int chunkSize = 500;
+
+    // 0 - по числу ядер. Пул отдельный от пула входа, но делит с ним CPU
+    private int hashingThreads = 0;
+}
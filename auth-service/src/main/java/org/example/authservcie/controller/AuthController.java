@@ -1,24 +1,48 @@
 package org.example.authservcie.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.example.authservcie.dto.AuthRequest;
 import org.example.authservcie.dto.AuthResponse;
+import org.example.authservcie.dto.RefreshRequest;
+import org.example.authservcie.dto.RevocationFilterResponse;
 import org.example.authservcie.dto.RegisterRequest;
+import org.example.authservcie.dto.TokenBatchRequest;
+import org.example.authservcie.dto.TokenValidationResult;
+import org.example.authservcie.security.SigningKeys;
 import org.example.authservcie.service.AuthService;
+import org.example.authservcie.service.TokenRevocationService;
+import org.example.authservcie.service.TokenBatchValidationService;
+import org.example.authservcie.service.UserImportService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/auth")
 public class AuthController {
     private final AuthService authService;
+    private final TokenBatchValidationService tokenBatchValidationService;
+    private final UserImportService userImportService;
+    private final TokenRevocationService tokenRevocationService;
+    private final SigningKeys signingKeys;
 
     @PostMapping("/register")
     public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
@@ -26,12 +50,78 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody AuthRequest request) {
-        return ResponseEntity.ok(authService.login(request));
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody AuthRequest request,
+                                              HttpServletRequest httpRequest) {
+        // За шлюзом адрес клиента берётся из X-Forwarded-For (server.forward-headers-strategy)
+        return ResponseEntity.ok(authService.login(request, httpRequest.getRemoteAddr()));
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshRequest request) {
+        return ResponseEntity.ok(authService.refresh(request.getRefreshToken()));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader) {
+        if (!authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        authService.logout(authHeader.substring(7));
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Открытые ключи подписи для шлюза и сервисов; проверяющие кэшируют их на jwks-max-age.
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(signingKeys.jwksMaxAge()).cachePublic())
+                .body(signingKeys.jwks());
+    }
+
+    /**
+     * Фильтр Блума отозванных jti для шлюза. Пока фильтр не менялся - 304 по ETag.
+     */
+    @GetMapping("/revocations/filter")
+    public ResponseEntity<RevocationFilterResponse> revocationFilter(WebRequest webRequest) {
+        String eTag = tokenRevocationService.currentETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(tokenRevocationService.currentFilter());
+    }
+
+    @GetMapping("/revocations/{jti}")
+    public ResponseEntity<Boolean> isRevoked(@PathVariable String jti) {
+        return ResponseEntity.ok(tokenRevocationService.isRevoked(jti));
     }
 
     @GetMapping("/validate")
     public ResponseEntity<Boolean> validateToken(@RequestParam String token) {
         return ResponseEntity.ok(authService.validateToken(token));
     }
+
+    @PostMapping("/validate/batch")
+    public ResponseEntity<List<TokenValidationResult>> validateTokens(@Valid @RequestBody TokenBatchRequest request) {
+        return ResponseEntity.ok(tokenBatchValidationService.validateTokens(request.getTokens()));
+    }
+
+    /**
+     * Тело читается потоком, результат по каждой строке отдаётся NDJSON по мере обработки.
+     */
+    @PostMapping(value = "/import",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                             HttpServletRequest request) {
+        UserImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? UserImportService.Format.NDJSON
+                : UserImportService.Format.CSV;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> userImportService.importUsers(request.getInputStream(), format, out));
+    }
 }
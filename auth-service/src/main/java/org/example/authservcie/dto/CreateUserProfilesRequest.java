@@ -0,0 +1,14 @@
+package org.example.authservcie.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CreateUserProfilesRequest {
+    private List<CreateUserProfileRequest> users;
+}
@@ -0,0 +1,18 @@
+package org.example.authservcie.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Снимок фильтра Блума отозванных jti для шлюза
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevocationFilterResponse {
+    private long version;
+    private int numHashes;
+    // long[] в big-endian, Base64
+    private String bits;
+}
@@ -0,0 +1,24 @@
+package org.example.authservcie.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenValidationResult {
+    private boolean valid;
+    private String subject;
+    private String userId;
+    private String role;
+    private Instant expiresAt;
+    // Причина отказа: invalid_token, expired, revoked, unknown_user, disabled
+    private String error;
+}
@@ -0,0 +1,27 @@
+package org.example.authservcie.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportResult {
+    // Номер строки во входных данных, начиная с 1
+    private long row;
+    private String email;
+    private Status status;
+    private String error;
+
+    public enum Status {
+        CREATED,
+        // Email уже зарегистрирован
+        EXISTS,
+        // Email повторяется в самом импорте
+        DUPLICATE,
+        INVALID
+    }
+}
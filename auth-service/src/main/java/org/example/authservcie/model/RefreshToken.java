@@ -6,17 +6,21 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.OneToOne;
+import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 import java.time.Instant;
 
 @Entity
 @Table(name = "refresh_tokens")
 @Builder
+@Getter
+@Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class RefreshToken {
@@ -24,13 +28,19 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(unique = true)
-    private String token;
+    // SHA-256 от токена: 32 байта вместо JWT целиком, сам токен не хранится
+    @Column(unique = true, nullable = false, length = 32)
+    private byte[] token;
 
     @Column(name = "expiry_date")
     private Instant expiryDate;
 
-    @OneToOne
+    // Токен уже обменян на новый; повторное предъявление - признак кражи
+    @Builder.Default
+    @Column(nullable = false)
+    private boolean revoked = false;
+
+    @ManyToOne
     @JoinColumn(name = "user_id")
     private User user;
 }
@@ -0,0 +1,31 @@
+package org.example.authservcie.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "revoked_tokens")
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+    // jti отозванного access-токена
+    @Id
+    private String jti;
+
+    // exp токена: после него запись больше не нужна
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+}
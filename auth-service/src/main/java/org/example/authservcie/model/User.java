@@ -41,6 +41,11 @@ public class User {
     @Column(nullable = false)
     private Role role;
 
+    // Отключённый пользователь не проходит /auth/validate даже с действующим токеном
+    @Builder.Default
+    @Column(nullable = false)
+    private boolean enabled = true;
+
     @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -0,0 +1,14 @@
+package org.example.authservcie.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция для синхронизации состояния учётных записей: без пароля и прочих полей.
+ */
+public interface AccountStateView {
+    String getEmail();
+
+    boolean isEnabled();
+
+    LocalDateTime getUpdatedAt();
+}
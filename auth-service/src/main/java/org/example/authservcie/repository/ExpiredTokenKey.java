@@ -0,0 +1,12 @@
+package org.example.authservcie.repository;
+
+import java.time.Instant;
+
+/**
+ * Ключ курсора очистки: позиция в индексе (expiry_date, id).
+ */
+public interface ExpiredTokenKey {
+    Long getId();
+
+    Instant getExpiryDate();
+}
@@ -0,0 +1,25 @@
+package org.example.authservcie.repository;
+
+import org.example.authservcie.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    /**
+     * Блокирует пачку готовых к отправке событий. SKIP LOCKED позволяет нескольким
+     * экземплярам сервиса разбирать очередь параллельно, не ожидая друг друга.
+     */
+    @Query(value = """
+            SELECT * FROM outbox_events
+            WHERE next_attempt_at <= now() AND parked_at IS NULL
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboxEvent> lockReadyBatch(@Param("limit") int limit);
+}
@@ -2,13 +2,41 @@ package org.example.authservcie.repository;
 
 import org.example.authservcie.model.RefreshToken;
 import org.example.authservcie.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
-    Optional<RefreshToken> findRefreshTokenByToken(String token);
+    Optional<RefreshToken> findRefreshTokenByToken(byte[] token);
     void deleteByUser(User user);
-}
\ No newline at end of file
+
+    /**
+     * Атомарно помечает токен использованным. 0 - токен уже был обменян другим запросом.
+     */
+    @Modifying
+    @Query("update RefreshToken r set r.revoked = true where r.id = :id and r.revoked = false")
+    int revokeIfActive(@Param("id") Long id);
+
+    /**
+     * Следующая пачка истёкших токенов после курсора. Идёт по индексу (expiry_date, id)
+     * и не просматривает заново уже удалённые строки.
+     */
+    @Query("""
+            select r.id as id, r.expiryDate as expiryDate from RefreshToken r
+            where r.expiryDate < :now
+              and (r.expiryDate > :afterExpiry or (r.expiryDate = :afterExpiry and r.id > :afterId))
+            order by r.expiryDate, r.id
+            """)
+    List<ExpiredTokenKey> findExpiredAfter(@Param("now") Instant now,
+                                           @Param("afterExpiry") Instant afterExpiry,
+                                           @Param("afterId") Long afterId,
+                                           Limit limit);
+}
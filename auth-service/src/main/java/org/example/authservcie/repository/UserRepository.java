@@ -2,12 +2,24 @@ package org.example.authservcie.repository;
 
 import org.example.authservcie.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findUserByEmail(String email);
     boolean existsByEmail(String email);
+    List<AccountStateView> findAllByEnabledFalse();
+    List<AccountStateView> findAllByUpdatedAtAfter(LocalDateTime since);
+    List<AccountStateView> findAllByEmailIn(Collection<String> emails);
+
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
 }
\ No newline at end of file
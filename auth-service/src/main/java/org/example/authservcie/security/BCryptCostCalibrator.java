@@ -0,0 +1,61 @@
+package org.example.authservcie.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Подбор стоимости BCrypt под бюджет времени на один хеш на текущем железе.
+ * Каждый шаг стоимости удваивает время, поэтому перебор останавливается
+ * на первой стоимости, превысившей бюджет.
+ * <p>
+ * Результат замера зависит от железа конкретного экземпляра, поэтому он только пишется
+ * в лог как рекомендация для auth.password-encoder.bcrypt-strength.
+ */
+@Slf4j
+public final class BCryptCostCalibrator {
+    private static final int SAMPLES = 3;
+    private static final String PASSWORD = "calibration-password";
+
+    private BCryptCostCalibrator() {
+    }
+
+    public static int recommend(int minStrength, int maxStrength, Duration target, int configuredStrength) {
+        int recommended = calibrate(minStrength, maxStrength, target);
+        if (recommended != configuredStrength) {
+            log.warn("BCrypt strength {} is configured, strength {} fits target {} ms on this host",
+                    configuredStrength, recommended, target.toMillis());
+        }
+        return recommended;
+    }
+
+    public static int calibrate(int minStrength, int maxStrength, Duration target) {
+        // Прогрев JIT, чтобы первый замер не завышал время
+        BCrypt.hashpw(PASSWORD, BCrypt.gensalt(4));
+
+        int chosen = minStrength;
+        for (int strength = minStrength; strength <= maxStrength; strength++) {
+            long medianNanos = medianHashNanos(strength);
+            log.info("BCrypt strength {}: {} ms per hash", strength, medianNanos / 1_000_000);
+            if (medianNanos > target.toNanos()) {
+                break;
+            }
+            chosen = strength;
+        }
+        log.info("BCrypt strength {} fits target {} ms", chosen, target.toMillis());
+        return chosen;
+    }
+
+    private static long medianHashNanos(int strength) {
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw(PASSWORD, BCrypt.gensalt(strength));
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
@@ -2,7 +2,7 @@ package org.example.authservcie.security;
 
 import lombok.RequiredArgsConstructor;
 import org.example.authservcie.model.User;
-import org.example.authservcie.repository.UserRepository;
+import org.example.authservcie.service.UserLookupService;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.provisioning.UserDetailsManager;
@@ -11,11 +11,11 @@ import org.springframework.stereotype.Service;
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsManager {
-    private final UserRepository userRepository;
+    private final UserLookupService userLookupService;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findUserByEmail(username)
+        User user = userLookupService.findByEmail(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
         return org.springframework.security.core.userdetails.User.builder()
                 .username(user.getEmail())
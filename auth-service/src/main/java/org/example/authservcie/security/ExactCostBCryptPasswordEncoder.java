@@ -0,0 +1,31 @@
+package org.example.authservcie.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt, который считает устаревшим хеш с любой стоимостью, отличной от текущей.
+ * Стандартный {@link BCryptPasswordEncoder} перехеширует только более слабые хеши,
+ * поэтому снизить стоимость в конфигурации без него нельзя.
+ * Стоимость должна быть одинаковой на всех экземплярах, см. SecurityConfig.
+ */
+public class ExactCostBCryptPasswordEncoder extends BCryptPasswordEncoder {
+    private final int strength;
+
+    public ExactCostBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Формат: $2a$10$<salt+hash>
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return super.upgradeEncoding(encodedPassword);
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6)) != strength;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+}
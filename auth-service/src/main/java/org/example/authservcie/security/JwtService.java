@@ -1,78 +1,109 @@
 package org.example.authservcie.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
 import org.example.authservcie.config.JwtConfig;
 import org.example.authservcie.model.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.UUID;
 
 @Service
-@RequiredArgsConstructor
 public class JwtService {
+    /**
+     * Назначение токена: refresh-токен подписан тем же ключом и несёт те же claims,
+     * поэтому без этой отметки прошёл бы проверку как access-токен.
+     */
+    public static final String TOKEN_USE_CLAIM = "token_use";
+    public static final String ACCESS_TOKEN = "access";
+    public static final String REFRESH_TOKEN = "refresh";
+
     private final JwtConfig jwtConfig;
+    private final SigningKeys signingKeys;
+    // Парсер неизменяем и потокобезопасен, поэтому создаётся один раз; ключ выбирается по kid
+    private final JwtParser jwtParser;
+
+    public JwtService(JwtConfig jwtConfig, SigningKeys signingKeys) {
+        this.jwtConfig = jwtConfig;
+        this.signingKeys = signingKeys;
+        this.jwtParser = Jwts.parser()
+                .keyLocator(signingKeys)
+                .build();
+    }
 
     public String generateAccessToken(User user) {
+        SigningKeys.SigningKey key = signingKeys.active();
         return Jwts.builder()
+                .header().keyId(key.id()).and()
+                // jti - ключ отзыва токена при выходе
+                .id(UUID.randomUUID().toString())
                 .setSubject(user.getEmail())
                 .claim("userId", user.getId().toString())
                 .claim("email", user.getEmail())
                 .claim("role", user.getRole().name())
+                .claim(TOKEN_USE_CLAIM, ACCESS_TOKEN)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + jwtConfig.accessExpiration()))
-                .signWith(getKey(), SignatureAlgorithm.HS256)
+                .signWith(key.privateKey(), key.algorithm())
                 .compact();
     }
 
     public String generateRefreshToken(User user) {
+        SigningKeys.SigningKey key = signingKeys.active();
         return Jwts.builder()
+                .header().keyId(key.id()).and()
+                // Уникальный id: два токена, выданных в одну секунду, иначе совпадут по хешу
+                .id(UUID.randomUUID().toString())
                 .setSubject(user.getEmail())
                 .claim("userId", user.getId().toString())
                 .claim("email", user.getEmail())
                 .claim("role", user.getRole().name())
+                .claim(TOKEN_USE_CLAIM, REFRESH_TOKEN)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + jwtConfig.refreshExpiration()))
-                .signWith(getKey(), SignatureAlgorithm.HS256)
+                .signWith(key.privateKey(), key.algorithm())
                 .compact();
     }
 
+    /**
+     * Единственная проверка подписи токена; дальше работать с полученными claims.
+     */
+    public Claims extractAllClaims(String token) {
+        return jwtParser.parseSignedClaims(token)
+                .getPayload();
+    }
+
     public String extractUsername(String token) {
-        return Jwts.parser()
-                .verifyWith(getKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        return extractAllClaims(token).getSubject();
     }
 
     public boolean validateToken(String token, UserDetails userDetails) {
         try {
-            String username = extractUsername(token);
-            return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+            return isValid(extractAllClaims(token), userDetails);
         } catch (Exception e) {
             return false;
         }
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isValid(Claims claims, UserDetails userDetails) {
+        return isAccessToken(claims)
+                && claims.getSubject() != null
+                && claims.getSubject().equals(userDetails.getUsername())
+                && !isExpired(claims);
+    }
+
+    public boolean isAccessToken(Claims claims) {
+        return ACCESS_TOKEN.equals(claims.get(TOKEN_USE_CLAIM, String.class));
     }
 
-    private Date extractExpiration(String token) {
-        return Jwts.parser()
-                .verifyWith(getKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getExpiration();
+    public boolean isRefreshToken(Claims claims) {
+        return REFRESH_TOKEN.equals(claims.get(TOKEN_USE_CLAIM, String.class));
     }
 
-    private SecretKey getKey() {
-        return Keys.hmacShaKeyFor(jwtConfig.jwtSecret().getBytes());
+    public boolean isExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 }
@@ -0,0 +1,112 @@
+package org.example.authservcie.security;
+
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.Locator;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import lombok.extern.slf4j.Slf4j;
+import org.example.authservcie.config.JwtKeyProperties;
+import org.springframework.stereotype.Component;
+
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Ключи подписи токенов: активный подписывает, все опубликованные в JWKS проверяют.
+ * Заодно служит локатором ключа для парсера JwtService по kid из заголовка токена.
+ */
+@Slf4j
+@Component
+public class SigningKeys implements Locator<Key> {
+    private final Map<String, SigningKey> keys = new LinkedHashMap<>();
+    private final SigningKey active;
+    private final Map<String, Object> jwks;
+    private final Duration jwksMaxAge;
+
+    public SigningKeys(JwtKeyProperties properties) {
+        for (JwtKeyProperties.Key key : properties.getKeys()) {
+            keys.put(key.getId(), load(key));
+        }
+        this.active = keys.get(properties.getActiveKeyId());
+        if (active == null || active.privateKey() == null) {
+            throw new IllegalStateException("No private key configured for active key id " + properties.getActiveKeyId());
+        }
+        this.jwks = Map.of("keys", keys.values().stream()
+                .map(SigningKeys::toJwk)
+                .toList());
+        this.jwksMaxAge = properties.getJwksMaxAge();
+        log.info("Signing tokens with key {} ({}), published keys: {}",
+                active.id(), active.algorithm().getId(), keys.keySet());
+    }
+
+    public SigningKey active() {
+        return active;
+    }
+
+    /**
+     * JWK Set с открытыми ключами; закрытые части в него не попадают.
+     */
+    public Map<String, Object> jwks() {
+        return jwks;
+    }
+
+    public Duration jwksMaxAge() {
+        return jwksMaxAge;
+    }
+
+    @Override
+    public Key locate(Header header) {
+        String keyId = header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null;
+        if (keyId != null) {
+            SigningKey key = keys.get(keyId);
+            if (key == null) {
+                throw new UnsupportedJwtException("Unknown signing key: " + keyId);
+            }
+            return key.publicKey();
+        }
+        throw new UnsupportedJwtException("Token has no key id");
+    }
+
+    private static SigningKey load(JwtKeyProperties.Key key) {
+        SignatureAlgorithm algorithm = switch (key.getAlgorithm()) {
+            case "EdDSA" -> Jwts.SIG.EdDSA;
+            case "ES256" -> Jwts.SIG.ES256;
+            default -> throw new IllegalStateException("Unsupported signing algorithm: " + key.getAlgorithm());
+        };
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(algorithm == Jwts.SIG.EdDSA ? "Ed25519" : "EC");
+            PrivateKey privateKey = key.getPrivateKey() == null
+                    ? null
+                    : keyFactory.generatePrivate(new PKCS8EncodedKeySpec(Base64.getDecoder().decode(key.getPrivateKey())));
+            PublicKey publicKey = keyFactory.generatePublic(
+                    new X509EncodedKeySpec(Base64.getDecoder().decode(key.getPublicKey())));
+            return new SigningKey(key.getId(), algorithm, privateKey, publicKey);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid signing key " + key.getId(), e);
+        }
+    }
+
+    private static Map<String, Object> toJwk(SigningKey key) {
+        return new LinkedHashMap<>(Jwks.builder()
+                .key(key.publicKey())
+                .id(key.id())
+                .algorithm(key.algorithm().getId())
+                .publicKeyUse("sig")
+                .build());
+    }
+
+    public record SigningKey(String id, SignatureAlgorithm algorithm, PrivateKey privateKey, PublicKey publicKey) {
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.authservcie.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.authservcie.repository.AccountStateView;
+import org.example.authservcie.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Множество отключённых учётных записей в памяти. /auth/validate проверяет по нему
+ * вместо запроса в БД. Актуальность поддерживается дельта-синхронизацией по updated_at:
+ * отключение или включение учётной записи становится видно только после следующей синхронизации,
+ * то есть с задержкой до auth.account-state.sync-interval.
+ */
+@Slf4j
+@Service
+public class AccountStateService {
+    private final UserRepository userRepository;
+    private final UserLookupService userLookupService;
+    private final Duration overlap;
+    private final Set<String> disabledEmails = ConcurrentHashMap.newKeySet();
+    private volatile LocalDateTime lastSync;
+
+    public AccountStateService(UserRepository userRepository,
+                               UserLookupService userLookupService,
+                               MeterRegistry meterRegistry,
+                               @Value("${auth.account-state.sync-overlap:5s}") Duration overlap) {
+        this.userRepository = userRepository;
+        this.userLookupService = userLookupService;
+        this.overlap = overlap;
+        Gauge.builder("auth.account-state.disabled", disabledEmails, Set::size)
+                .register(meterRegistry);
+    }
+
+    public boolean isDisabled(String email) {
+        return disabledEmails.contains(email);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadDisabledAccounts() {
+        LocalDateTime syncStart = LocalDateTime.now();
+        userRepository.findAllByEnabledFalse()
+                .forEach(account -> disabledEmails.add(account.getEmail()));
+        lastSync = syncStart;
+        log.info("Loaded {} disabled accounts", disabledEmails.size());
+    }
+
+    /**
+     * Читает только записи, изменённые с прошлой синхронизации. Окно перекрытия
+     * покрывает транзакции, которые зафиксировались позже своего updated_at.
+     */
+    @Scheduled(fixedDelayString = "${auth.account-state.sync-interval:10s}",
+            initialDelayString = "${auth.account-state.sync-interval:10s}")
+    public void syncChanges() {
+        if (lastSync == null) {
+            loadDisabledAccounts();
+            return;
+        }
+        LocalDateTime syncStart = LocalDateTime.now();
+        for (AccountStateView account : userRepository.findAllByUpdatedAtAfter(lastSync.minus(overlap))) {
+            apply(account.getEmail(), account.isEnabled());
+        }
+        lastSync = syncStart;
+    }
+
+    private void apply(String email, boolean enabled) {
+        boolean changed = enabled ? disabledEmails.remove(email) : disabledEmails.add(email);
+        if (changed) {
+            // Закешированный пользователь хранит прежний флаг enabled
+            userLookupService.evict(email);
+        }
+    }
+}
@@ -1,60 +1,59 @@
 package org.example.authservcie.service;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.example.authservcie.dto.AuthRequest;
 import org.example.authservcie.dto.AuthResponse;
-import org.example.authservcie.dto.CreateUserProfileRequest;
 import org.example.authservcie.dto.RegisterRequest;
 import org.example.authservcie.exception.AlreadyExistsException;
+import org.example.authservcie.exception.InvalidTokenException;
 import org.example.authservcie.exception.ResourceNotFoundException;
+import org.example.authservcie.exception.ServiceUnavailableException;
 import org.example.authservcie.model.User;
 import org.example.authservcie.repository.UserRepository;
 import org.example.authservcie.security.JwtService;
-import org.example.authservcie.service.client.UserProfileClient;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthService {
     private final UserRepository userRepository;
     private final JwtService jwtService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final RefreshTokenService refreshTokenService;
-    private final UserProfileClient userProfileClient;
+    private final OutboxService outboxService;
+    private final AccountStateService accountStateService;
+    private final UserLookupService userLookupService;
+    private final LoginAttemptService loginAttemptService;
+    private final TokenRevocationService tokenRevocationService;
+    private final TransactionTemplate transactionTemplate;
 
     public AuthResponse register(RegisterRequest request) {
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new AlreadyExistsException("Email already exists");
         }
 
-        User user = User.builder()
-                .name(request.getName())
-                .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
-                .role(request.getRole())
-                .build();
+        // Хеш считается до транзакции, чтобы не держать соединение с БД во время хеширования
+        String passwordHash = passwordHashingService.encode(request.getPassword());
 
-        // Сохраняем пользователя сразу
-        user = userRepository.save(user);
+        // Пользователь и событие outbox фиксируются одной локальной транзакцией,
+        // профиль в user-service создаёт релей
+        User user = transactionTemplate.execute(status -> {
+            User saved = userRepository.save(User.builder()
+                    .name(request.getName())
+                    .email(request.getEmail())
+                    .password(passwordHash)
+                    .role(request.getRole())
+                    .build());
+            outboxService.enqueueProfileCreation(saved);
+            return saved;
+        });
         Long userId = user.getId();
 
-        try {
-            // Пытаемся создать профиль в user-service
-            userProfileClient.createUser(new CreateUserProfileRequest(
-                    userId,
-                    user.getName(),
-                    user.getEmail(),
-                    user.getRole()
-            ));
-        } catch (Exception e) {
-            // Если не удалось - удаляем пользователя (компенсация)
-            userRepository.deleteById(userId);
-            throw new RuntimeException("Failed to create user profile", e);
-        }
-
         String accessToken = jwtService.generateAccessToken(user);
         String refreshToken = jwtService.generateRefreshToken(user);
         refreshTokenService.saveRefreshToken(user, refreshToken);
@@ -66,16 +65,27 @@ public class AuthService {
                 .build();
     }
 
-    public AuthResponse login(AuthRequest request) {
-        User user = userRepository.findUserByEmail(request.getEmail())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    public AuthResponse login(AuthRequest request, String clientIp) {
+        // Заблокированная попытка отклоняется до обращения к БД и хеширования
+        loginAttemptService.checkAllowed(request.getEmail(), clientIp);
+
+        User user = userLookupService.findByEmail(request.getEmail())
+                .orElse(null);
+        if (user == null) {
+            loginAttemptService.recordFailure(request.getEmail(), clientIp);
+            throw new ResourceNotFoundException("User not found");
+        }
         String accessToken = null;
         String refreshToken = null;
 
-        if (passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (user.isEnabled() && passwordHashingService.matches(request.getPassword(), user.getPassword())) {
+            loginAttemptService.recordSuccess(request.getEmail());
+            upgradePasswordHash(user, request.getPassword());
             accessToken = jwtService.generateAccessToken(user);
             refreshToken = jwtService.generateRefreshToken(user);
             refreshTokenService.saveRefreshToken(user, refreshToken);
+        } else {
+            loginAttemptService.recordFailure(request.getEmail(), clientIp);
         }
 
         return AuthResponse.builder()
@@ -84,17 +94,88 @@ public class AuthService {
                 .build();
     }
 
-    public boolean validateToken(String token) {
-        String username = jwtService.extractUsername(token);
+    /**
+     * Отзывает предъявленный access-токен и все refresh-токены пользователя.
+     */
+    public void logout(String accessToken) {
+        Claims claims;
+        try {
+            claims = jwtService.extractAllClaims(accessToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid access token");
+        }
+        if (!jwtService.isAccessToken(claims)) {
+            throw new InvalidTokenException("Invalid access token");
+        }
+
+        tokenRevocationService.revoke(claims);
+        userLookupService.findByEmail(claims.getSubject())
+                .ifPresent(refreshTokenService::revokeAll);
+    }
 
-        User user = userRepository.findUserByEmail(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    /**
+     * Обмен refresh-токена на новую пару без проверки пароля. Старый токен погашается.
+     */
+    public AuthResponse refresh(String refreshToken) {
+        Claims claims;
+        try {
+            claims = jwtService.extractAllClaims(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid refresh token");
+        }
+        if (!jwtService.isRefreshToken(claims)) {
+            throw new InvalidTokenException("Invalid refresh token");
+        }
 
-        UserDetails userDetails = org.springframework.security.core.userdetails.User.builder()
-                .username(user.getEmail())
-                .password(user.getPassword())
+        User user = refreshTokenService.rotate(refreshToken);
+        if (!user.isEnabled()) {
+            throw new InvalidTokenException("User is disabled");
+        }
+
+        String accessToken = jwtService.generateAccessToken(user);
+        String newRefreshToken = jwtService.generateRefreshToken(user);
+        refreshTokenService.saveRefreshToken(user, newRefreshToken);
+
+        return AuthResponse.builder()
+                .id(user.getId())
+                .accessToken(accessToken)
+                .refreshToken(newRefreshToken)
                 .build();
+    }
+
+    /**
+     * Пароль известен только в момент входа, поэтому устаревший хеш обновляется здесь.
+     * Если пул хеширования перегружен, обновление откладывается до следующего входа.
+     */
+    private void upgradePasswordHash(User user, String rawPassword) {
+        if (!passwordHashingService.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+        try {
+            user.setPassword(passwordHashingService.encode(rawPassword));
+            userRepository.save(user);
+            userLookupService.evict(user.getEmail());
+        } catch (ServiceUnavailableException e) {
+            log.warn("Password hash upgrade postponed for user {}", user.getId());
+        }
+    }
+
+    /**
+     * Ответ строится по проверенным claims, множеству отключённых учётных записей в памяти
+     * и фильтру отозванных токенов: в БД идёт только проверка положительного ответа фильтра.
+     */
+    public boolean validateToken(String token) {
+        Claims claims;
+        try {
+            claims = jwtService.extractAllClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
 
-        return jwtService.validateToken(token, userDetails);
+        return jwtService.isAccessToken(claims)
+                && claims.getSubject() != null
+                && !jwtService.isExpired(claims)
+                && !accountStateService.isDisabled(claims.getSubject())
+                && !tokenRevocationService.isRevoked(claims);
     }
 }
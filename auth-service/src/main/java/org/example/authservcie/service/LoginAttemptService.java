@@ -0,0 +1,104 @@
+package org.example.authservcie.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.authservcie.config.LoginAttemptProperties;
+import org.example.authservcie.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Защита /auth/login от перебора. Неудачные входы считаются в скользящем окне отдельно
+ * по email и по IP. После порога вход блокируется на время, которое удваивается с каждой
+ * следующей неудачей. Проверка идёт до поиска пользователя и хеширования пароля.
+ */
+@Service
+public class LoginAttemptService {
+    private final LoginAttemptProperties properties;
+    private final Clock clock;
+    private final long bucketMillis;
+    // Caffeine ограничивает число ключей и убирает тех, кто не ошибался дольше окна
+    private final Cache<String, SlidingWindowCounter> emailFailures;
+    private final Cache<String, SlidingWindowCounter> ipFailures;
+    private final Counter blockedCounter;
+
+    @Autowired
+    public LoginAttemptService(LoginAttemptProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Clock.systemUTC());
+    }
+
+    // Часы подменяются в тестах; по ним же считает время Caffeine
+    public LoginAttemptService(LoginAttemptProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.bucketMillis = Math.max(1, properties.getWindow().toMillis() / properties.getBuckets());
+        this.emailFailures = newCache(properties, clock);
+        this.ipFailures = newCache(properties, clock);
+        this.blockedCounter = Counter.builder("auth.login.blocked")
+                .register(meterRegistry);
+    }
+
+    private static Cache<String, SlidingWindowCounter> newCache(LoginAttemptProperties properties, Clock clock) {
+        return Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTrackedKeys())
+                .expireAfterAccess(properties.getWindow())
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .build();
+    }
+
+    public void checkAllowed(String email, String clientIp) {
+        long now = clock.millis();
+        long retryAfterMillis = Math.max(
+                retryAfter(emailFailures, normalize(email), properties.getMaxEmailFailures(), now),
+                retryAfter(ipFailures, clientIp, properties.getMaxIpFailures(), now));
+        if (retryAfterMillis > 0) {
+            blockedCounter.increment();
+            throw new TooManyRequestsException("Too many failed login attempts",
+                    Math.max(1, (retryAfterMillis + 999) / 1000));
+        }
+    }
+
+    public void recordFailure(String email, String clientIp) {
+        long now = clock.millis();
+        record(emailFailures, normalize(email), now);
+        record(ipFailures, clientIp, now);
+    }
+
+    public void recordSuccess(String email) {
+        emailFailures.invalidate(normalize(email));
+    }
+
+    private long retryAfter(Cache<String, SlidingWindowCounter> cache, String key, int maxFailures, long now) {
+        if (key == null) {
+            return 0;
+        }
+        SlidingWindowCounter failures = cache.getIfPresent(key);
+        if (failures == null) {
+            return 0;
+        }
+        long excess = failures.sum(now) - maxFailures;
+        if (excess < 0) {
+            return 0;
+        }
+        long lockout = Math.min(properties.getMaxLockout().toMillis(),
+                properties.getLockout().toMillis() << Math.min(excess, 20));
+        return failures.lastEventAt() + lockout - now;
+    }
+
+    private void record(Cache<String, SlidingWindowCounter> cache, String key, long now) {
+        if (key != null) {
+            cache.get(key, k -> new SlidingWindowCounter(properties.getBuckets(), bucketMillis))
+                    .increment(now);
+        }
+    }
+
+    private static String normalize(String email) {
+        return email == null ? null : email.toLowerCase(Locale.ROOT);
+    }
+}
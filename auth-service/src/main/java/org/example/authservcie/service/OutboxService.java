@@ -0,0 +1,215 @@
+package org.example.authservcie.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.authservcie.config.OutboxProperties;
+import org.example.authservcie.dto.CreateUserProfileRequest;
+import org.example.authservcie.dto.CreateUserProfilesRequest;
+import org.example.authservcie.model.OutboxEvent;
+import org.example.authservcie.model.User;
+import org.example.authservcie.repository.OutboxEventRepository;
+import org.example.authservcie.service.client.UserProfileClient;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transactional outbox для создания профилей в user-service. Событие пишется в той же
+ * транзакции, что и пользователь, релей доставляет события пачками и повторяет
+ * неудачные попытки с экспоненциальной задержкой. Получатель идемпотентен по id,
+ * поэтому повторная доставка пачки безопасна.
+ * <p>
+ * Если получатель отклонил пачку ответом 4xx, она делится пополам, пока отклонённое событие
+ * не останется одно - остальные доставляются. Отклонённое событие и событие, исчерпавшее
+ * maxAttempts, откладываются (parked_at) и ждут разбора вручную.
+ */
+@Slf4j
+@Service
+public class OutboxService {
+    private static final int MAX_ERROR_LENGTH = 512;
+    private static final String INSERT_EVENT = """
+            INSERT INTO outbox_events (event_type, aggregate_id, payload, attempts, next_attempt_at, created_at)
+            VALUES (?, ?, ?, 0, ?, ?)
+            """;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final UserProfileClient userProfileClient;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter deliveredCounter;
+    private final Counter failedCounter;
+    private final Counter parkedCounter;
+    private final Timer lagTimer;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository,
+                         UserProfileClient userProfileClient,
+                         ObjectMapper objectMapper,
+                         JdbcTemplate jdbcTemplate,
+                         OutboxProperties properties,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.userProfileClient = userProfileClient;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.deliveredCounter = Counter.builder("auth.outbox.delivered")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("auth.outbox.failed")
+                .register(meterRegistry);
+        this.parkedCounter = Counter.builder("auth.outbox.parked")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("auth.outbox.lag")
+                .description("От записи события до доставки")
+                .register(meterRegistry);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueProfileCreation(User user) {
+        Instant now = Instant.now();
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(OutboxEvent.USER_PROFILE_CREATE)
+                .aggregateId(user.getId())
+                .payload(write(toRequest(user)))
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+    }
+
+    /**
+     * Вариант для массового импорта: события вставляются одним JDBC batch.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueProfileCreations(List<User> users) {
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(INSERT_EVENT, users, users.size(), (ps, user) -> {
+            ps.setString(1, OutboxEvent.USER_PROFILE_CREATE);
+            ps.setLong(2, user.getId());
+            ps.setString(3, write(toRequest(user)));
+            ps.setTimestamp(4, now);
+            ps.setTimestamp(5, now);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${auth.outbox.poll-interval:500ms}")
+    public void relay() {
+        Integer delivered;
+        do {
+            delivered = transactionTemplate.execute(status -> deliverBatch());
+        } while (delivered != null && delivered == properties.getBatchSize());
+    }
+
+    /**
+     * Строки остаются заблокированными до конца отправки: другой экземпляр их пропустит.
+     */
+    private int deliverBatch() {
+        List<OutboxEvent> events = outboxEventRepository.lockReadyBatch(properties.getBatchSize());
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<OutboxEvent> delivered = new ArrayList<>(events.size());
+        deliver(events, delivered);
+        if (delivered.isEmpty()) {
+            return 0;
+        }
+
+        Instant now = Instant.now();
+        delivered.forEach(event -> lagTimer.record(Duration.between(event.getCreatedAt(), now)));
+        outboxEventRepository.deleteAllInBatch(delivered);
+        deliveredCounter.increment(delivered.size());
+        // Пачка с отклонёнными событиями не полная - релей доберёт остальное в следующий раз
+        return delivered.size();
+    }
+
+    private void deliver(List<OutboxEvent> events, List<OutboxEvent> delivered) {
+        try {
+            userProfileClient.createUsers(new CreateUserProfilesRequest(events.stream()
+                    .map(event -> read(event.getPayload()))
+                    .toList()));
+            delivered.addAll(events);
+        } catch (Exception e) {
+            if (isRejected(e) && events.size() > 1) {
+                // Получатель отклонил пачку целиком - ищем виновное событие делением пополам
+                int middle = events.size() / 2;
+                deliver(events.subList(0, middle), delivered);
+                deliver(events.subList(middle, events.size()), delivered);
+                return;
+            }
+            log.warn("Outbox delivery of {} events failed: {}", events.size(), e.getMessage());
+            failedCounter.increment(events.size());
+            events.forEach(event -> scheduleRetry(event, e, isRejected(e)));
+        }
+    }
+
+    /**
+     * 4xx кроме 429: повтор того же запроса не поможет.
+     */
+    private static boolean isRejected(Exception e) {
+        return e instanceof FeignException feignException
+                && feignException.status() >= 400 && feignException.status() < 500
+                && feignException.status() != 429;
+    }
+
+    private void scheduleRetry(OutboxEvent event, Exception e, boolean rejected) {
+        int attempts = event.getAttempts() + 1;
+        Duration backoff = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        if (backoff.compareTo(properties.getMaxBackoff()) > 0) {
+            backoff = properties.getMaxBackoff();
+        }
+        String error = String.valueOf(e.getMessage());
+        Instant now = Instant.now();
+        event.setAttempts(attempts);
+        event.setNextAttemptAt(now.plus(backoff));
+        event.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        if (rejected || attempts >= properties.getMaxAttempts()) {
+            event.setParkedAt(now);
+            parkedCounter.increment();
+            log.error("Outbox event {} ({} for aggregate {}) parked after {} attempts: {}",
+                    event.getId(), event.getEventType(), event.getAggregateId(), attempts, event.getLastError());
+        }
+    }
+
+    private static CreateUserProfileRequest toRequest(User user) {
+        return new CreateUserProfileRequest(
+                user.getId(),
+                user.getName(),
+                user.getEmail(),
+                user.getRole()
+        );
+    }
+
+    private String write(CreateUserProfileRequest request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize outbox payload", e);
+        }
+    }
+
+    private CreateUserProfileRequest read(String payload) {
+        try {
+            return objectMapper.readValue(payload, CreateUserProfileRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read outbox payload", e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.authservcie.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.authservcie.config.TokenPurgeProperties;
+import org.example.authservcie.repository.ExpiredTokenKey;
+import org.example.authservcie.repository.RefreshTokenRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Удаляет истёкшие refresh-токены пачками по курсору (expiry_date, id). Каждая пачка -
+ * отдельная короткая транзакция, между пачками пауза.
+ * <p>
+ * Очистка идёт на собственном потоке: с паузами она длится минуты и не должна
+ * занимать общий поток планировщика, на котором работают outbox и синхронизации.
+ * Если прошлый запуск ещё не закончился, новый пропускается.
+ */
+@Slf4j
+@Service
+public class RefreshTokenPurgeService {
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenPurgeProperties properties;
+    private final Counter deletedCounter;
+    private final Counter batchCounter;
+    private final Timer purgeTimer;
+    private final ThreadPoolExecutor executor;
+
+    public RefreshTokenPurgeService(RefreshTokenRepository refreshTokenRepository,
+                                    TokenPurgeProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.properties = properties;
+        this.deletedCounter = Counter.builder("auth.refresh-token.purge.deleted")
+                .register(meterRegistry);
+        this.batchCounter = Counter.builder("auth.refresh-token.purge.batches")
+                .register(meterRegistry);
+        this.purgeTimer = Timer.builder("auth.refresh-token.purge")
+                .register(meterRegistry);
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "refresh-token-purge");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @Scheduled(fixedDelayString = "${auth.token-purge.interval:1h}",
+            initialDelayString = "${auth.token-purge.initial-delay:1m}")
+    public void purgeExpired() {
+        executor.execute(() -> {
+            try {
+                purgeTimer.record(this::purge);
+            } catch (RuntimeException e) {
+                log.warn("Refresh token purge failed", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Прерывание обрывает паузу между пачками
+        executor.shutdownNow();
+    }
+
+    private void purge() {
+        Instant now = Instant.now();
+        Instant afterExpiry = Instant.EPOCH;
+        long afterId = 0;
+        long deleted = 0;
+
+        while (true) {
+            List<ExpiredTokenKey> batch = refreshTokenRepository.findExpiredAfter(
+                    now, afterExpiry, afterId, Limit.of(properties.getBatchSize()));
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            refreshTokenRepository.deleteAllByIdInBatch(batch.stream().map(ExpiredTokenKey::getId).toList());
+            deleted += batch.size();
+            deletedCounter.increment(batch.size());
+            batchCounter.increment();
+
+            ExpiredTokenKey last = batch.get(batch.size() - 1);
+            afterExpiry = last.getExpiryDate();
+            afterId = last.getId();
+            if (batch.size() < properties.getBatchSize() || !pause()) {
+                break;
+            }
+        }
+
+        if (deleted > 0) {
+            log.info("Purged {} expired refresh tokens", deleted);
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getPause());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,26 +1,81 @@
 package org.example.authservcie.service;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 import org.example.authservcie.config.JwtConfig;
+import org.example.authservcie.exception.InvalidTokenException;
 import org.example.authservcie.model.RefreshToken;
 import org.example.authservcie.model.User;
 import org.example.authservcie.repository.RefreshTokenRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class RefreshTokenService {
     private final RefreshTokenRepository refreshTokenRepository;
     private final JwtConfig jwtConfig;
+    private final Counter reuseCounter;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               JwtConfig jwtConfig,
+                               MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jwtConfig = jwtConfig;
+        this.reuseCounter = Counter.builder("auth.refresh.reuse")
+                .description("Повторное предъявление уже обменянного refresh-токена")
+                .register(meterRegistry);
+    }
 
     public void saveRefreshToken(User user, String token) {
         RefreshToken refreshToken = RefreshToken.builder()
                 .user(user)
-                .token(token)
+                .token(hash(token))
                 .expiryDate(Instant.now().plusMillis(jwtConfig.refreshExpiration()))
                 .build();
         refreshTokenRepository.save(refreshToken);
     }
+
+    /**
+     * Погашает refresh-токен и возвращает его владельца. Обменянные токены остаются в таблице
+     * до истечения срока: если такой токен придёт снова, значит его копия у кого-то ещё,
+     * и все refresh-токены пользователя отзываются.
+     */
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public User rotate(String token) {
+        RefreshToken stored = refreshTokenRepository.findRefreshTokenByToken(hash(token))
+                .orElseThrow(() -> new InvalidTokenException("Unknown refresh token"));
+
+        if (stored.getExpiryDate().isBefore(Instant.now())) {
+            throw new InvalidTokenException("Refresh token expired");
+        }
+        if (refreshTokenRepository.revokeIfActive(stored.getId()) == 0) {
+            reuseCounter.increment();
+            log.warn("Refresh token reuse detected for user {}, revoking all sessions", stored.getUser().getId());
+            refreshTokenRepository.deleteByUser(stored.getUser());
+            throw new InvalidTokenException("Refresh token reuse detected");
+        }
+        return stored.getUser();
+    }
+
+    @Transactional
+    public void revokeAll(User user) {
+        refreshTokenRepository.deleteByUser(user);
+    }
+
+    private static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 обязателен для любой JRE
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -0,0 +1,47 @@
+package org.example.authservcie.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Счётчик событий в скользящем окне из кольца корзин. Без блокировок: корзина,
+ * оставшаяся от прошлого круга, обнуляется через CAS по номеру её интервала.
+ */
+class SlidingWindowCounter {
+    private final long bucketMillis;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray epochs;
+    private final AtomicLong lastEventAt = new AtomicLong();
+
+    SlidingWindowCounter(int buckets, long bucketMillis) {
+        this.bucketMillis = bucketMillis;
+        this.counts = new AtomicLongArray(buckets);
+        this.epochs = new AtomicLongArray(buckets);
+    }
+
+    void increment(long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        int index = (int) (epoch % counts.length());
+        long bucketEpoch = epochs.get(index);
+        if (bucketEpoch != epoch && epochs.compareAndSet(index, bucketEpoch, epoch)) {
+            counts.set(index, 0);
+        }
+        counts.incrementAndGet(index);
+        lastEventAt.accumulateAndGet(nowMillis, Math::max);
+    }
+
+    long sum(long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        long sum = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            if (epoch - epochs.get(i) < counts.length()) {
+                sum += counts.get(i);
+            }
+        }
+        return sum;
+    }
+
+    long lastEventAt() {
+        return lastEventAt.get();
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.authservcie.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ValidationException;
+import org.example.authservcie.config.TokenBatchProperties;
+import org.example.authservcie.dto.TokenValidationResult;
+import org.example.authservcie.repository.AccountStateView;
+import org.example.authservcie.repository.UserRepository;
+import org.example.authservcie.security.JwtService;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Проверка пачки токенов за один запрос. Подписи проверяются параллельно на отдельном
+ * пуле, состояние всех пользователей пачки читается одним запросом с IN.
+ */
+@Service
+public class TokenBatchValidationService {
+    private final JwtService jwtService;
+    private final UserRepository userRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final int maxSize;
+    // Отдельный пул, чтобы не занимать общий ForkJoinPool
+    private final ForkJoinPool verifyPool;
+
+    public TokenBatchValidationService(JwtService jwtService,
+                                       UserRepository userRepository,
+                                       TokenRevocationService tokenRevocationService,
+                                       TokenBatchProperties properties) {
+        this.jwtService = jwtService;
+        this.userRepository = userRepository;
+        this.tokenRevocationService = tokenRevocationService;
+        this.maxSize = properties.getMaxSize();
+        int parallelism = properties.getParallelism() > 0
+                ? properties.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        this.verifyPool = new ForkJoinPool(parallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        verifyPool.shutdown();
+    }
+
+    /**
+     * Результаты возвращаются в порядке токенов запроса.
+     */
+    public List<TokenValidationResult> validateTokens(List<String> tokens) {
+        if (tokens.size() > maxSize) {
+            throw new ValidationException("Too many tokens in batch: " + tokens.size() + ", max " + maxSize);
+        }
+
+        List<Verified> verified = verifyPool.submit(() -> tokens.parallelStream()
+                        .map(this::verify)
+                        .toList())
+                .join();
+
+        Set<String> subjects = verified.stream()
+                .map(Verified::claims)
+                .filter(Objects::nonNull)
+                .map(Claims::getSubject)
+                .collect(Collectors.toSet());
+        Map<String, AccountStateView> accounts = subjects.isEmpty()
+                ? Map.of()
+                : userRepository.findAllByEmailIn(subjects).stream()
+                        .collect(Collectors.toMap(AccountStateView::getEmail, Function.identity()));
+
+        return verified.stream()
+                .map(result -> toResult(result, accounts))
+                .toList();
+    }
+
+    private Verified verify(String token) {
+        try {
+            Claims claims = jwtService.extractAllClaims(token);
+            if (claims.getSubject() == null || !jwtService.isAccessToken(claims)) {
+                return new Verified(null, "invalid_token");
+            }
+            if (jwtService.isExpired(claims)) {
+                return new Verified(null, "expired");
+            }
+            return tokenRevocationService.isRevoked(claims)
+                    ? new Verified(null, "revoked")
+                    : new Verified(claims, null);
+        } catch (JwtException | IllegalArgumentException e) {
+            return new Verified(null, "invalid_token");
+        }
+    }
+
+    private TokenValidationResult toResult(Verified verified, Map<String, AccountStateView> accounts) {
+        if (verified.claims() == null) {
+            return TokenValidationResult.builder()
+                    .valid(false)
+                    .error(verified.error())
+                    .build();
+        }
+
+        Claims claims = verified.claims();
+        AccountStateView account = accounts.get(claims.getSubject());
+        String error = account == null ? "unknown_user" : account.isEnabled() ? null : "disabled";
+        return TokenValidationResult.builder()
+                .valid(error == null)
+                .subject(claims.getSubject())
+                .userId(claims.get("userId", String.class))
+                .role(claims.get("role", String.class))
+                .expiresAt(claims.getExpiration().toInstant())
+                .error(error)
+                .build();
+    }
+
+    private record Verified(Claims claims, String error) {
+    }
+}
@@ -0,0 +1,152 @@
+package org.example.authservcie.service;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.authservcie.config.RevocationProperties;
+import org.example.authservcie.dto.RevocationFilterResponse;
+import org.example.authservcie.model.RevokedToken;
+import org.example.authservcie.repository.RevokedTokenRepository;
+import org.example.authservcie.security.BloomFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Отзыв access-токенов по jti. Отозванные jti хранятся в revoked_tokens до exp токена
+ * и дублируются в фильтр Блума, который забирает шлюз. Отрицательный ответ фильтра
+ * окончательный, положительный проверяется точно через {@link #isRevoked(String)}.
+ * Отзывы с других экземпляров сервиса подтягиваются дельта-синхронизацией по revoked_at.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final RevocationProperties properties;
+    private final Duration overlap;
+    // Версии разных экземпляров не сравнимы, поэтому ETag включает id экземпляра
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicLong version = new AtomicLong();
+    private final Counter revokedCounter;
+    private volatile BloomFilter filter;
+    private volatile Instant lastSync;
+    private volatile Snapshot snapshot;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  RevocationProperties properties,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${auth.revocation.sync-overlap:5s}") Duration overlap) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.properties = properties;
+        this.overlap = overlap;
+        this.filter = BloomFilter.create(properties.getExpectedRevocations(), properties.getFalsePositiveRate());
+        this.revokedCounter = Counter.builder("auth.token.revoked")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return false, если у токена нет jti (выдан до появления отзыва) - такой токен не отозвать
+     */
+    public boolean revoke(Claims claims) {
+        if (claims.getId() == null) {
+            return false;
+        }
+        revokedTokenRepository.save(RevokedToken.builder()
+                .jti(claims.getId())
+                .expiresAt(claims.getExpiration().toInstant())
+                .revokedAt(Instant.now())
+                .build());
+        filter.put(claims.getId());
+        version.incrementAndGet();
+        revokedCounter.increment();
+        return true;
+    }
+
+    public boolean isRevoked(Claims claims) {
+        String jti = claims.getId();
+        return jti != null && filter.mightContain(jti) && isRevoked(jti);
+    }
+
+    public boolean isRevoked(String jti) {
+        return revokedTokenRepository.existsById(jti);
+    }
+
+    public String currentETag() {
+        return "\"" + instanceId + "-" + version.get() + "\"";
+    }
+
+    public RevocationFilterResponse currentFilter() {
+        long currentVersion = version.get();
+        Snapshot current = snapshot;
+        if (current == null || current.version() != currentVersion) {
+            BloomFilter currentFilter = filter;
+            long[] words = currentFilter.toWords();
+            ByteBuffer buffer = ByteBuffer.allocate(words.length * Long.BYTES);
+            buffer.asLongBuffer().put(words);
+            current = new Snapshot(currentVersion, new RevocationFilterResponse(
+                    currentVersion,
+                    currentFilter.getNumHashes(),
+                    Base64.getEncoder().encodeToString(buffer.array())));
+            snapshot = current;
+        }
+        return current.response();
+    }
+
+    /**
+     * Полная сборка фильтра: удалённые по сроку jti из него уходят, размер подстраивается под число отзывов.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${auth.revocation.rebuild-interval:10m}",
+            initialDelayString = "${auth.revocation.rebuild-interval:10m}")
+    public void rebuild() {
+        Instant syncStart = Instant.now();
+        revokedTokenRepository.deleteExpired(syncStart);
+        List<String> active = revokedTokenRepository.findActiveJtis(syncStart);
+
+        BloomFilter rebuilt = BloomFilter.create(
+                Math.max(properties.getExpectedRevocations(), active.size() * 2L),
+                properties.getFalsePositiveRate());
+        active.forEach(rebuilt::put);
+        filter = rebuilt;
+        lastSync = syncStart;
+        version.incrementAndGet();
+        log.info("Revocation filter rebuilt with {} tokens", active.size());
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocation.sync-interval:5s}",
+            initialDelayString = "${auth.revocation.sync-interval:5s}")
+    public void syncChanges() {
+        if (lastSync == null) {
+            rebuild();
+            return;
+        }
+        Instant syncStart = Instant.now();
+        List<String> revoked = revokedTokenRepository.findRevokedSince(lastSync.minus(overlap), syncStart);
+        BloomFilter current = filter;
+        boolean changed = false;
+        for (String jti : revoked) {
+            if (!current.mightContain(jti)) {
+                current.put(jti);
+                changed = true;
+            }
+        }
+        if (changed) {
+            version.incrementAndGet();
+        }
+        lastSync = syncStart;
+    }
+
+    private record Snapshot(long version, RevocationFilterResponse response) {
+    }
+}
@@ -0,0 +1,280 @@
+package org.example.authservcie.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.example.authservcie.config.UserImportProperties;
+import org.example.authservcie.dto.UserImportResult;
+import org.example.authservcie.dto.UserImportResult.Status;
+import org.example.authservcie.dto.UserImportRow;
+import org.example.authservcie.model.Role;
+import org.example.authservcie.model.User;
+import org.example.authservcie.repository.UserRepository;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Массовый импорт пользователей. Вход читается потоком и обрабатывается кусками:
+ * одна проверка существующих email на кусок, параллельное хеширование, JDBC batch вставка
+ * пользователей и событий outbox в одной транзакции. Профили в user-service создаёт релей outbox.
+ * Результат по каждой строке пишется в ответ сразу после фиксации куска.
+ */
+@Slf4j
+@Service
+public class UserImportService {
+    private static final String INSERT_USER = """
+            INSERT INTO users (name, email, password, role, enabled, created_at, updated_at)
+            VALUES (?, ?, ?, ?, true, ?, ?)
+            ON CONFLICT (email) DO NOTHING
+            """;
+    private static final String SELECT_CHUNK_USERS = """
+            SELECT id, name, email, password, role FROM users WHERE email IN (:emails)
+            """;
+    private static final byte[] NEW_LINE = "\n".getBytes(StandardCharsets.UTF_8);
+
+    private final UserRepository userRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    // Пустая колонка role - null, а не ошибка разбора
+    private final CsvMapper csvMapper = CsvMapper.builder()
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .build();
+    private final int chunkSize;
+    private final ForkJoinPool hashingPool;
+    private final Map<Status, Counter> rowCounters = new EnumMap<>(Status.class);
+
+    public UserImportService(UserRepository userRepository,
+                             NamedParameterJdbcTemplate jdbcTemplate,
+                             PasswordEncoder passwordEncoder,
+                             OutboxService outboxService,
+                             TransactionTemplate transactionTemplate,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             UserImportProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.outboxService = outboxService;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = properties.getChunkSize();
+        int threads = properties.getHashingThreads() > 0
+                ? properties.getHashingThreads()
+                : Runtime.getRuntime().availableProcessors();
+        this.hashingPool = new ForkJoinPool(threads);
+        for (Status status : Status.values()) {
+            rowCounters.put(status, Counter.builder("auth.import.rows")
+                    .tag("status", status.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdown();
+    }
+
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    public void importUsers(InputStream in, Format format, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        ObjectReader rowReader = format == Format.CSV
+                ? csvRowReader(reader.readLine())
+                : objectMapper.readerFor(UserImportRow.class);
+        long lineNumber = format == Format.CSV ? 1 : 0;
+
+        Set<String> seenEmails = new HashSet<>();
+        Map<Status, Long> totals = new EnumMap<>(Status.class);
+        List<Line> chunk = new ArrayList<>(chunkSize);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.add(new Line(lineNumber, line));
+            if (chunk.size() == chunkSize) {
+                writeResults(processChunk(chunk, rowReader, seenEmails), totals, out);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeResults(processChunk(chunk, rowReader, seenEmails), totals, out);
+        }
+
+        out.write(objectMapper.writeValueAsBytes(Map.of("summary", totals)));
+        out.write(NEW_LINE);
+        out.flush();
+        log.info("User import finished: {}", totals);
+    }
+
+    private ObjectReader csvRowReader(String header) {
+        if (header == null) {
+            return csvMapper.readerFor(UserImportRow.class);
+        }
+        CsvSchema.Builder schema = CsvSchema.builder();
+        Arrays.stream(header.split(","))
+                .map(String::trim)
+                .forEach(schema::addColumn);
+        return csvMapper.readerFor(UserImportRow.class).with(schema.build());
+    }
+
+    private List<UserImportResult> processChunk(List<Line> chunk, ObjectReader rowReader, Set<String> seenEmails) {
+        UserImportResult[] results = new UserImportResult[chunk.size()];
+        List<Candidate> candidates = new ArrayList<>();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            Line line = chunk.get(i);
+            UserImportRow row;
+            try {
+                row = rowReader.readValue(line.text());
+            } catch (IOException | IllegalArgumentException e) {
+                results[i] = new UserImportResult(line.number(), null, Status.INVALID, "Unreadable row");
+                continue;
+            }
+
+            Set<ConstraintViolation<UserImportRow>> violations = validator.validate(row);
+            if (!violations.isEmpty()) {
+                results[i] = new UserImportResult(line.number(), row.getEmail(), Status.INVALID, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            } else if (!seenEmails.add(row.getEmail())) {
+                results[i] = new UserImportResult(line.number(), row.getEmail(), Status.DUPLICATE, null);
+            } else {
+                candidates.add(new Candidate(i, line.number(), row));
+            }
+        }
+
+        if (!candidates.isEmpty()) {
+            createUsers(candidates, results);
+        }
+        return Arrays.asList(results);
+    }
+
+    private void createUsers(List<Candidate> candidates, UserImportResult[] results) {
+        Set<String> existing = userRepository.findExistingEmails(candidates.stream()
+                .map(candidate -> candidate.row().getEmail())
+                .toList());
+        List<Candidate> toCreate = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            if (existing.contains(candidate.row().getEmail())) {
+                results[candidate.index()] = new UserImportResult(
+                        candidate.lineNumber(), candidate.row().getEmail(), Status.EXISTS, null);
+            } else {
+                toCreate.add(candidate);
+            }
+        }
+        if (toCreate.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = hashingPool.submit(() -> toCreate.parallelStream()
+                        .map(candidate -> passwordEncoder.encode(candidate.row().getPassword()))
+                        .toList())
+                .join();
+
+        Map<String, String> hashByEmail = new HashMap<>();
+        for (int i = 0; i < toCreate.size(); i++) {
+            hashByEmail.put(toCreate.get(i).row().getEmail(), hashes.get(i));
+        }
+
+        Set<String> created = transactionTemplate.execute(status -> insertUsers(toCreate, hashByEmail));
+        for (Candidate candidate : toCreate) {
+            String email = candidate.row().getEmail();
+            // Email, зарегистрированный параллельно с импортом, пропускается через ON CONFLICT
+            Status status = created.contains(email) ? Status.CREATED : Status.EXISTS;
+            results[candidate.index()] = new UserImportResult(candidate.lineNumber(), email, status, null);
+        }
+    }
+
+    /**
+     * Своими считаются строки с тем же хешем, что вставляли: соль у каждого хеша случайная,
+     * поэтому у строки, вставленной параллельной регистрацией, хеш не совпадёт.
+     */
+    private Set<String> insertUsers(List<Candidate> toCreate, Map<String, String> hashByEmail) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_USER, toCreate, toCreate.size(), (ps, candidate) -> {
+            UserImportRow row = candidate.row();
+            ps.setString(1, row.getName());
+            ps.setString(2, row.getEmail());
+            ps.setString(3, hashByEmail.get(row.getEmail()));
+            ps.setString(4, (row.getRole() != null ? row.getRole() : Role.USER).name());
+            ps.setTimestamp(5, now);
+            ps.setTimestamp(6, now);
+        });
+
+        List<User> created = jdbcTemplate.query(SELECT_CHUNK_USERS,
+                        new MapSqlParameterSource("emails", hashByEmail.keySet()),
+                        (rs, rowNum) -> User.builder()
+                                .id(rs.getLong("id"))
+                                .name(rs.getString("name"))
+                                .email(rs.getString("email"))
+                                .password(rs.getString("password"))
+                                .role(Role.valueOf(rs.getString("role")))
+                                .build())
+                .stream()
+                .filter(user -> user.getPassword().equals(hashByEmail.get(user.getEmail())))
+                .toList();
+        outboxService.enqueueProfileCreations(created);
+        return created.stream()
+                .map(User::getEmail)
+                .collect(Collectors.toSet());
+    }
+
+    private void writeResults(List<UserImportResult> results, Map<Status, Long> totals, OutputStream out)
+            throws IOException {
+        for (UserImportResult result : results) {
+            rowCounters.get(result.getStatus()).increment();
+            totals.merge(result.getStatus(), 1L, Long::sum);
+            out.write(objectMapper.writeValueAsBytes(result));
+            out.write(NEW_LINE);
+        }
+        out.flush();
+    }
+
+    private record Line(long number, String text) {
+    }
+
+    private record Candidate(int index, long lineNumber, UserImportRow row) {
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.authservcie.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.authservcie.model.User;
+import org.example.authservcie.repository.UserRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Поиск пользователя по email через кеш "users" (Caffeine, размер и TTL в spring.cache.caffeine.spec).
+ * Отсутствующие пользователи не кешируются, после записи в users запись кеша сбрасывается.
+ */
+@Service
+public class UserLookupService {
+    public static final String CACHE_NAME = "users";
+
+    private final UserRepository userRepository;
+    private final Timer loadTimer;
+
+    public UserLookupService(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.loadTimer = Timer.builder("auth.user-cache.load")
+                .description("Загрузка пользователя из БД при промахе кеша")
+                .register(meterRegistry);
+    }
+
+    @Cacheable(cacheNames = CACHE_NAME, key = "#email", unless = "#result == null")
+    public Optional<User> findByEmail(String email) {
+        return loadTimer.record(() -> userRepository.findUserByEmail(email));
+    }
+
+    @CacheEvict(cacheNames = CACHE_NAME, key = "#email")
+    public void evict(String email) {
+    }
+}
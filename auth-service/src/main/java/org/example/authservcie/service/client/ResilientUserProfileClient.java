@@ -0,0 +1,46 @@
+package org.example.authservcie.service.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.example.authservcie.dto.CreateUserProfilesRequest;
+import org.example.authservcie.exception.ServiceUnavailableException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+/**
+ * UserProfileClient за circuit breaker и bulkhead. Пока user-service недоступен или перегружен,
+ * вызовы отклоняются сразу, не занимая соединения пула и потоки.
+ */
+@Primary
+@Component
+public class ResilientUserProfileClient implements UserProfileClient {
+    private final UserProfileClient delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public ResilientUserProfileClient(@Qualifier(UserProfileClient.QUALIFIER) UserProfileClient delegate,
+                                      CircuitBreaker userServiceCircuitBreaker,
+                                      Bulkhead userServiceBulkhead) {
+        this.delegate = delegate;
+        this.circuitBreaker = userServiceCircuitBreaker;
+        this.bulkhead = userServiceBulkhead;
+    }
+
+    @Override
+    public void createUsers(CreateUserProfilesRequest request) {
+        call(() -> delegate.createUsers(request));
+    }
+
+    private void call(Runnable call) {
+        try {
+            CircuitBreaker.decorateRunnable(circuitBreaker, Bulkhead.decorateRunnable(bulkhead, call)).run();
+        } catch (CallNotPermittedException e) {
+            throw new ServiceUnavailableException("User service is unavailable");
+        } catch (BulkheadFullException e) {
+            throw new ServiceUnavailableException("User service is overloaded");
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package org.example.authservcie.service.client;
 
-import org.example.authservcie.dto.CreateUserProfileRequest;
+import org.example.authservcie.dto.CreateUserProfilesRequest;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
-@FeignClient(name = "user-service")
+// Внедряется через ResilientUserProfileClient; сам Feign-прокси доступен по квалификатору
+@FeignClient(name = "user-service", qualifiers = UserProfileClient.QUALIFIER, primary = false)
 public interface UserProfileClient {
-    @PostMapping("/users/")
-    void createUser(@RequestBody CreateUserProfileRequest request);
+    String QUALIFIER = "userProfileFeignClient";
+
+    // Идемпотентно: профили с уже существующим id пропускаются
+    @PostMapping("/users/batch")
+    void createUsers(@RequestBody CreateUserProfilesRequest request);
 }
@@ -0,0 +1,60 @@
+package org.example.authservcie.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SlidingWindowCounter пакетный, поэтому тест лежит в его пакете.
+ * Окно - 3 корзины по 1 секунде.
+ */
+public class SlidingWindowCounterTest {
+    private final SlidingWindowCounter counter = new SlidingWindowCounter(3, 1000);
+
+    @Test
+    @DisplayName("sum_ShouldCountAllBuckets_WhenEventsWithinWindow")
+    public void sumWithinWindowTest() {
+        counter.increment(0);
+        counter.increment(999);
+        counter.increment(1500);
+        counter.increment(2999);
+
+        assertThat(counter.sum(2999)).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("increment_ShouldResetBucket_WhenRingWrapsAround")
+    public void bucketRolloverTest() {
+        counter.increment(0);
+        counter.increment(500);
+        counter.increment(1000);
+
+        // Интервал 3 попадает в ту же корзину, что интервал 0
+        counter.increment(3000);
+
+        assertThat(counter.sum(3000)).isEqualTo(2);
+        assertThat(counter.sum(3999)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("sum_ShouldIgnoreEvents_WhenOlderThanWindow")
+    public void windowExpiryTest() {
+        counter.increment(0);
+        counter.increment(1000);
+
+        assertThat(counter.sum(2999)).isEqualTo(2);
+        assertThat(counter.sum(3000)).isEqualTo(1);
+        assertThat(counter.sum(4000)).isZero();
+        assertThat(counter.sum(60_000)).isZero();
+    }
+
+    @Test
+    @DisplayName("lastEventAt_ShouldReturnLatestEventTime_WhenEventsRecorded")
+    public void lastEventAtTest() {
+        counter.increment(2000);
+        counter.increment(1500);
+
+        assertThat(counter.lastEventAt()).isEqualTo(2000);
+    }
+}
@@ -4,11 +4,21 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.authservcie.controller.AuthController;
 import org.example.authservcie.dto.AuthRequest;
 import org.example.authservcie.dto.AuthResponse;
+import org.example.authservcie.dto.RefreshRequest;
 import org.example.authservcie.dto.RegisterRequest;
+import org.example.authservcie.dto.TokenBatchRequest;
+import org.example.authservcie.dto.TokenValidationResult;
 import org.example.authservcie.exception.AlreadyExistsException;
+import org.example.authservcie.exception.InvalidTokenException;
+import org.example.authservcie.exception.ServiceUnavailableException;
+import org.example.authservcie.exception.TooManyRequestsException;
 import org.example.authservcie.handler.GlobalExceptionHandler;
 import org.example.authservcie.model.Role;
+import org.example.authservcie.security.SigningKeys;
 import org.example.authservcie.service.AuthService;
+import org.example.authservcie.service.TokenBatchValidationService;
+import org.example.authservcie.service.TokenRevocationService;
+import org.example.authservcie.service.UserImportService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -20,17 +30,31 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,6 +69,18 @@ public class AuthControllerTest {
     @Mock
     private AuthService authService;
 
+    @Mock
+    private TokenBatchValidationService tokenBatchValidationService;
+
+    @Mock
+    private UserImportService userImportService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private SigningKeys signingKeys;
+
     @InjectMocks
     private AuthController authController;
 
@@ -113,7 +149,7 @@ public class AuthControllerTest {
                 .refreshToken("refreshToken")
                 .build();
 
-        when(authService.login(any(AuthRequest.class))).thenReturn(expectedResponse);
+        when(authService.login(any(AuthRequest.class), any())).thenReturn(expectedResponse);
 
         mockMvc.perform(post(BASE_PATH + "login")
                         .contentType(APPLICATION_JSON)
@@ -121,7 +157,7 @@ public class AuthControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.refreshToken").value("refreshToken"));
 
-        verify(authService, times(1)).login(any(AuthRequest.class));
+        verify(authService, times(1)).login(any(AuthRequest.class), any());
     }
 
     @Test
@@ -137,7 +173,47 @@ public class AuthControllerTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
 
-        verify(authService, never()).login(any(AuthRequest.class));
+        verify(authService, never()).login(any(AuthRequest.class), any());
+    }
+
+    @Test
+    @DisplayName("refresh_ShouldReturnNewTokens_WhenValidRefreshToken")
+    public void refreshValidTest() throws Exception {
+        RefreshRequest request = RefreshRequest.builder()
+                .refreshToken("refreshToken")
+                .build();
+
+        AuthResponse expectedResponse = AuthResponse.builder()
+                .id(1L)
+                .accessToken("newAccessToken")
+                .refreshToken("newRefreshToken")
+                .build();
+
+        when(authService.refresh("refreshToken")).thenReturn(expectedResponse);
+
+        mockMvc.perform(post(BASE_PATH + "refresh")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.refreshToken").value("newRefreshToken"));
+
+        verify(authService, times(1)).refresh("refreshToken");
+    }
+
+    @Test
+    @DisplayName("refresh_ShouldReturnUnauthorized_WhenRefreshTokenReused")
+    public void refreshReusedTest() throws Exception {
+        RefreshRequest request = RefreshRequest.builder()
+                .refreshToken("usedRefreshToken")
+                .build();
+
+        when(authService.refresh(anyString()))
+                .thenThrow(new InvalidTokenException("Refresh token reuse detected"));
+
+        mockMvc.perform(post(BASE_PATH + "refresh")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnauthorized());
     }
 
     @Test
@@ -195,7 +271,7 @@ public class AuthControllerTest {
                 .password("curr")
                 .build();
 
-        when(authService.login(any(AuthRequest.class)))
+        when(authService.login(any(AuthRequest.class), any()))
                 .thenThrow(new RuntimeException("Invalid credentials"));
 
         mockMvc.perform(post(BASE_PATH + "login")
@@ -203,4 +279,151 @@ public class AuthControllerTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    @DisplayName("login_ShouldReturnServiceUnavailable_WhenHashingSaturated")
+    public void loginHashingSaturatedTest() throws Exception {
+        AuthRequest request = AuthRequest.builder()
+                .email("test@mail.com")
+                .password("currentPassword")
+                .build();
+
+        when(authService.login(any(AuthRequest.class), any()))
+                .thenThrow(new ServiceUnavailableException("Password hashing capacity exhausted"));
+
+        mockMvc.perform(post(BASE_PATH + "login")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    @DisplayName("validateTokens_ShouldReturnResultPerToken_WhenValidBatch")
+    public void validateTokensTest() throws Exception {
+        TokenBatchRequest request = TokenBatchRequest.builder()
+                .tokens(List.of("valid-token", "invalid-token"))
+                .build();
+
+        when(tokenBatchValidationService.validateTokens(request.getTokens())).thenReturn(List.of(
+                TokenValidationResult.builder()
+                        .valid(true)
+                        .subject("test@mail.com")
+                        .userId("1")
+                        .role("USER")
+                        .build(),
+                TokenValidationResult.builder()
+                        .valid(false)
+                        .error("invalid_token")
+                        .build()));
+
+        mockMvc.perform(post(BASE_PATH + "validate/batch")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].valid").value(true))
+                .andExpect(jsonPath("$[0].userId").value("1"))
+                .andExpect(jsonPath("$[1].valid").value(false))
+                .andExpect(jsonPath("$[1].error").value("invalid_token"));
+
+        verify(tokenBatchValidationService, times(1)).validateTokens(request.getTokens());
+    }
+
+    @Test
+    @DisplayName("validateTokens_ShouldReturnBadRequest_WhenBatchEmpty")
+    public void validateTokensEmptyTest() throws Exception {
+        TokenBatchRequest request = TokenBatchRequest.builder()
+                .tokens(List.of())
+                .build();
+
+        mockMvc.perform(post(BASE_PATH + "validate/batch")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verify(tokenBatchValidationService, never()).validateTokens(anyList());
+    }
+
+    @Test
+    @DisplayName("importUsers_ShouldStreamRowResults_WhenCsvUploaded")
+    public void importUsersTest() throws Exception {
+        String csv = """
+                name,email,password,role
+                Bob,bob@mail.com,password123,user
+                """;
+        String progress = "{\"row\":2,\"email\":\"bob@mail.com\",\"status\":\"CREATED\"}\n";
+
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write(progress.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(userImportService).importUsers(any(), eq(UserImportService.Format.CSV), any());
+
+        MvcResult result = mockMvc.perform(post(BASE_PATH + "import")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(progress));
+    }
+
+    @Test
+    @DisplayName("login_ShouldReturnTooManyRequests_WhenAttemptsBlocked")
+    public void loginBlockedTest() throws Exception {
+        AuthRequest request = AuthRequest.builder()
+                .email("test@mail.com")
+                .password("currentPassword")
+                .build();
+
+        when(authService.login(any(AuthRequest.class), any()))
+                .thenThrow(new TooManyRequestsException("Too many failed login attempts", 30));
+
+        mockMvc.perform(post(BASE_PATH + "login")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "30"));
+    }
+
+    @Test
+    @DisplayName("logout_ShouldReturnNoContent_WhenBearerTokenGiven")
+    public void logoutTest() throws Exception {
+        mockMvc.perform(post(BASE_PATH + "logout")
+                        .header("Authorization", "Bearer access-token"))
+                .andExpect(status().isNoContent());
+
+        verify(authService, times(1)).logout("access-token");
+    }
+
+    @Test
+    @DisplayName("isRevoked_ShouldReturnTrue_WhenJtiRevoked")
+    public void isRevokedTest() throws Exception {
+        when(tokenRevocationService.isRevoked("revoked-jti")).thenReturn(true);
+
+        mockMvc.perform(get(BASE_PATH + "revocations/{jti}", "revoked-jti"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("true"));
+    }
+
+    @Test
+    @DisplayName("jwks_ShouldReturnPublicKeys_WithCacheControl")
+    public void jwksTest() throws Exception {
+        when(signingKeys.jwks()).thenReturn(Map.of("keys", List.of(Map.of(
+                "kty", "OKP",
+                "crv", "Ed25519",
+                "kid", "2026-10-ed25519",
+                "x", "5KoIn0FUntsXoTZasDeV2bVdiR3jrPs8fElw02cWxaM"))));
+        when(signingKeys.jwksMaxAge()).thenReturn(Duration.ofMinutes(5));
+
+        mockMvc.perform(get(BASE_PATH + ".well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=300, public"))
+                .andExpect(jsonPath("$.keys[0].kid").value("2026-10-ed25519"))
+                .andExpect(jsonPath("$.keys[0].d").doesNotExist());
+    }
 }
@@ -0,0 +1,120 @@
+package org.example.authservice;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.example.authservcie.config.JwtConfig;
+import org.example.authservcie.config.JwtKeyProperties;
+import org.example.authservcie.model.Role;
+import org.example.authservcie.model.User;
+import org.example.authservcie.security.JwtService;
+import org.example.authservcie.security.SigningKeys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность проверки токена: прежняя схема (парсер на каждый вызов,
+ * две проверки подписи) против JwtService с одним разбором токена. Обе проверяют один и тот же
+ * токен EdDSA, чтобы сравнивалась только схема разбора; стоимость самих подписей - в SignatureSchemeBenchmark.
+ * Запускается через main, в обычный прогон тестов не входит.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class JwtValidationBenchmark {
+    private SigningKeys signingKeys;
+    private JwtService jwtService;
+    private String token;
+    private UserDetails userDetails;
+
+    @Setup
+    public void setUp() throws NoSuchAlgorithmException {
+        JwtConfig jwtConfig = new JwtConfig() {
+            @Override
+            public Long accessExpiration() {
+                return TimeUnit.HOURS.toMillis(1);
+            }
+
+            @Override
+            public Long refreshExpiration() {
+                return TimeUnit.DAYS.toMillis(7);
+            }
+        };
+        signingKeys = new SigningKeys(signingProperties());
+        jwtService = new JwtService(jwtConfig, signingKeys);
+
+        User user = User.builder()
+                .id(1L)
+                .email("user@example.com")
+                .role(Role.USER)
+                .build();
+        token = jwtService.generateAccessToken(user);
+        userDetails = org.springframework.security.core.userdetails.User.builder()
+                .username(user.getEmail())
+                .password("")
+                .build();
+    }
+
+    @Benchmark
+    public boolean legacyValidation() {
+        String username = legacyKeyAndParse().getSubject();
+        return username.equals(userDetails.getUsername())
+                && !legacyKeyAndParse().getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public boolean singleParseValidation() {
+        return jwtService.validateToken(token, userDetails);
+    }
+
+    private static JwtKeyProperties signingProperties() throws NoSuchAlgorithmException {
+        KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        JwtKeyProperties.Key key = new JwtKeyProperties.Key();
+        key.setId("benchmark");
+        key.setPrivateKey(Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()));
+        key.setPublicKey(Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+        JwtKeyProperties properties = new JwtKeyProperties();
+        properties.setActiveKeyId(key.getId());
+        properties.setKeys(List.of(key));
+        return properties;
+    }
+
+    private Claims legacyKeyAndParse() {
+        return Jwts.parser()
+                .keyLocator(signingKeys)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtValidationBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
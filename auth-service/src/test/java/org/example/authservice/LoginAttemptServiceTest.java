@@ -0,0 +1,164 @@
+package org.example.authservice;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.authservcie.config.LoginAttemptProperties;
+import org.example.authservcie.exception.TooManyRequestsException;
+import org.example.authservcie.service.LoginAttemptService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Порог 3 неудачи на email и 5 на IP в окне 15 минут, блокировка 30 секунд с удвоением до 2 минут.
+ */
+public class LoginAttemptServiceTest {
+    private static final String EMAIL = "user@example.com";
+    private static final String IP = "10.0.0.1";
+
+    private MutableClock clock;
+    private LoginAttemptService loginAttemptService;
+
+    @BeforeEach
+    void setUp() {
+        LoginAttemptProperties properties = new LoginAttemptProperties();
+        properties.setWindow(Duration.ofMinutes(15));
+        properties.setBuckets(15);
+        properties.setMaxEmailFailures(3);
+        properties.setMaxIpFailures(5);
+        properties.setLockout(Duration.ofSeconds(30));
+        properties.setMaxLockout(Duration.ofMinutes(2));
+        clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+        loginAttemptService = new LoginAttemptService(properties, new SimpleMeterRegistry(), clock);
+    }
+
+    @Test
+    @DisplayName("checkAllowed_ShouldThrow_WhenFailuresReachThreshold")
+    public void thresholdTest() {
+        fail(EMAIL, 2);
+        assertAllowed(EMAIL);
+
+        fail(EMAIL, 1);
+        assertBlocked(EMAIL, 30);
+    }
+
+    @Test
+    @DisplayName("recordFailure_ShouldDoubleLockoutUpToMax_WhenAboveThreshold")
+    public void doublingLockoutTest() {
+        fail(EMAIL, 4);
+        assertBlocked(EMAIL, 60);
+
+        fail(EMAIL, 1);
+        assertBlocked(EMAIL, 120);
+
+        fail(EMAIL, 1);
+        assertBlocked(EMAIL, 120);
+    }
+
+    @Test
+    @DisplayName("checkAllowed_ShouldAllow_WhenLockoutAfterLastFailureEnded")
+    public void lockoutEndsTest() {
+        fail(EMAIL, 3);
+
+        clock.advance(Duration.ofSeconds(29).plusMillis(1));
+        assertBlocked(EMAIL, 1);
+
+        clock.advance(Duration.ofMillis(999));
+        assertAllowed(EMAIL);
+    }
+
+    @Test
+    @DisplayName("checkAllowed_ShouldAllow_WhenFailuresOlderThanWindow")
+    public void windowExpiryTest() {
+        fail(EMAIL, 2);
+        clock.advance(Duration.ofMinutes(10));
+        fail(EMAIL, 1);
+        clock.advance(Duration.ofSeconds(30));
+        // Все три неудачи ещё в окне, блокировка по последней уже прошла
+        assertAllowed(EMAIL);
+
+        clock.advance(Duration.ofMinutes(5));
+        // Первые две вышли из окна: одна новая неудача не доводит до порога
+        fail(EMAIL, 1);
+        assertAllowed(EMAIL);
+    }
+
+    @Test
+    @DisplayName("recordSuccess_ShouldClearEmailCounterOnly_WhenIpAlsoFailing")
+    public void recordSuccessTest() {
+        fail(EMAIL, 3);
+        assertBlocked(EMAIL, 30);
+
+        loginAttemptService.recordSuccess(EMAIL);
+        assertAllowed(EMAIL);
+
+        // Счётчик IP уже 3 из 5: ещё две неудачи с другим email блокируют адрес
+        loginAttemptService.recordFailure("other@example.com", IP);
+        loginAttemptService.recordFailure("another@example.com", IP);
+        assertBlocked("third@example.com", 30);
+    }
+
+    @Test
+    @DisplayName("checkAllowed_ShouldThrow_WhenSameEmailInDifferentCase")
+    public void emailCaseTest() {
+        loginAttemptService.recordFailure("User@Example.com", "10.0.0.2");
+        loginAttemptService.recordFailure("USER@EXAMPLE.COM", "10.0.0.3");
+        loginAttemptService.recordFailure(EMAIL, "10.0.0.4");
+
+        assertThatThrownBy(() -> loginAttemptService.checkAllowed("user@EXAMPLE.com", "10.0.0.5"))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    private void fail(String email, int times) {
+        for (int i = 0; i < times; i++) {
+            loginAttemptService.recordFailure(email, IP);
+        }
+    }
+
+    private void assertAllowed(String email) {
+        assertThatCode(() -> loginAttemptService.checkAllowed(email, IP)).doesNotThrowAnyException();
+    }
+
+    private void assertBlocked(String email, long retryAfterSeconds) {
+        assertThatThrownBy(() -> loginAttemptService.checkAllowed(email, IP))
+                .isInstanceOf(TooManyRequestsException.class)
+                .satisfies(e -> assertThat(((TooManyRequestsException) e).getRetryAfterSeconds())
+                        .isEqualTo(retryAfterSeconds));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package org.example.authservice;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.authservcie.config.OutboxProperties;
+import org.example.authservcie.dto.CreateUserProfileRequest;
+import org.example.authservcie.dto.CreateUserProfilesRequest;
+import org.example.authservcie.exception.ServiceUnavailableException;
+import org.example.authservcie.model.OutboxEvent;
+import org.example.authservcie.model.Role;
+import org.example.authservcie.repository.OutboxEventRepository;
+import org.example.authservcie.service.OutboxService;
+import org.example.authservcie.service.client.UserProfileClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class OutboxServiceTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private UserProfileClient userProfileClient;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OutboxProperties properties;
+    private OutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OutboxProperties();
+        properties.setBatchSize(10);
+        properties.setInitialBackoff(Duration.ofSeconds(1));
+        properties.setMaxBackoff(Duration.ofSeconds(5));
+        properties.setMaxAttempts(5);
+        outboxService = new OutboxService(outboxEventRepository, userProfileClient, objectMapper, jdbcTemplate,
+                properties, transactionManager, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("relay_ShouldDeleteEvents_WhenBatchDelivered")
+    public void deliveredBatchIsDeletedTest() {
+        List<OutboxEvent> events = List.of(event(1L, 0), event(2L, 0));
+        when(outboxEventRepository.lockReadyBatch(anyInt())).thenReturn(events);
+
+        outboxService.relay();
+
+        ArgumentCaptor<CreateUserProfilesRequest> request = ArgumentCaptor.forClass(CreateUserProfilesRequest.class);
+        verify(userProfileClient).createUsers(request.capture());
+        assertThat(request.getValue().getUsers()).extracting(CreateUserProfileRequest::getId)
+                .containsExactly(1L, 2L);
+        verify(outboxEventRepository).deleteAllInBatch(events);
+        assertThat(events).allSatisfy(event -> assertThat(event.getAttempts()).isZero());
+    }
+
+    @Test
+    @DisplayName("relay_ShouldBackOffExponentially_WhenDeliveryFails")
+    public void failedDeliveryBacksOffTest() {
+        OutboxEvent first = event(1L, 0);
+        OutboxEvent third = event(2L, 2);
+        OutboxEvent capped = event(3L, 3);
+        when(outboxEventRepository.lockReadyBatch(anyInt())).thenReturn(List.of(first, third, capped));
+        doThrow(new ServiceUnavailableException("user-service is unavailable"))
+                .when(userProfileClient).createUsers(any());
+
+        Instant before = Instant.now();
+        outboxService.relay();
+
+        verify(outboxEventRepository, never()).deleteAllInBatch(any());
+        assertThat(first.getAttempts()).isEqualTo(1);
+        assertThat(first.getNextAttemptAt()).isCloseTo(before.plusSeconds(1), within(Duration.ofMillis(500)));
+        assertThat(third.getAttempts()).isEqualTo(3);
+        assertThat(third.getNextAttemptAt()).isCloseTo(before.plusSeconds(4), within(Duration.ofMillis(500)));
+        assertThat(capped.getNextAttemptAt()).isCloseTo(before.plusSeconds(5), within(Duration.ofMillis(500)));
+        assertThat(first.getLastError()).isEqualTo("user-service is unavailable");
+        assertThat(List.of(first, third, capped)).allSatisfy(event -> assertThat(event.getParkedAt()).isNull());
+    }
+
+    @Test
+    @DisplayName("relay_ShouldParkEvent_WhenMaxAttemptsReached")
+    public void eventIsParkedAfterMaxAttemptsTest() {
+        OutboxEvent event = event(1L, 4);
+        when(outboxEventRepository.lockReadyBatch(anyInt())).thenReturn(List.of(event));
+        doThrow(new ServiceUnavailableException("user-service is unavailable"))
+                .when(userProfileClient).createUsers(any());
+
+        outboxService.relay();
+
+        assertThat(event.getAttempts()).isEqualTo(5);
+        assertThat(event.getParkedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("relay_ShouldDeliverValidAndParkRejected_WhenBatchRejected")
+    public void rejectedBatchIsBisectedTest() {
+        List<OutboxEvent> events = List.of(event(1L, 0), event(2L, 0), event(3L, 0), event(4L, 0), event(5L, 0));
+        when(outboxEventRepository.lockReadyBatch(anyInt())).thenReturn(events);
+        List<Long> deliveredIds = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<Long> ids = invocation.<CreateUserProfilesRequest>getArgument(0).getUsers().stream()
+                    .map(CreateUserProfileRequest::getId)
+                    .toList();
+            if (ids.contains(3L)) {
+                throw badRequest();
+            }
+            deliveredIds.addAll(ids);
+            return null;
+        }).when(userProfileClient).createUsers(any());
+
+        outboxService.relay();
+
+        assertThat(deliveredIds).containsExactlyInAnyOrder(1L, 2L, 4L, 5L);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OutboxEvent>> deleted = ArgumentCaptor.forClass(List.class);
+        verify(outboxEventRepository, times(1)).deleteAllInBatch(deleted.capture());
+        assertThat(deleted.getValue()).extracting(OutboxEvent::getAggregateId)
+                .containsExactlyInAnyOrder(1L, 2L, 4L, 5L);
+
+        OutboxEvent rejected = events.get(2);
+        assertThat(rejected.getParkedAt()).isNotNull();
+        assertThat(rejected.getAttempts()).isEqualTo(1);
+        assertThat(events).filteredOn(event -> event != rejected)
+                .allSatisfy(event -> assertThat(event.getParkedAt()).isNull());
+    }
+
+    private OutboxEvent event(long id, int attempts) {
+        try {
+            return OutboxEvent.builder()
+                    .id(id)
+                    .eventType(OutboxEvent.USER_PROFILE_CREATE)
+                    .aggregateId(id)
+                    .payload(objectMapper.writeValueAsString(
+                            new CreateUserProfileRequest(id, "user" + id, "user" + id + "@example.com", Role.USER)))
+                    .attempts(attempts)
+                    .nextAttemptAt(Instant.now())
+                    .createdAt(Instant.now())
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static FeignException badRequest() {
+        Request request = Request.create(Request.HttpMethod.POST, "http://user-service/users/batch",
+                Map.of(), null, StandardCharsets.UTF_8, null);
+        return FeignException.errorStatus("UserProfileClient#createUsers(CreateUserProfilesRequest)",
+                Response.builder()
+                        .status(400)
+                        .reason("Bad Request")
+                        .request(request)
+                        .headers(Map.of())
+                        .build());
+    }
+}
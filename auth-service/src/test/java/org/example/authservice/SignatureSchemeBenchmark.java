@@ -0,0 +1,103 @@
+package org.example.authservice;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость подписи и проверки токена доступа для каждой схемы: HS256 (общий секрет),
+ * ES256 (P-256) и EdDSA (Ed25519). Парсер и ключи создаются один раз, как в JwtService,
+ * поэтому меряется только криптография и разбор. Запускается через main.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class SignatureSchemeBenchmark {
+    private static final String SECRET = "36b791aaa49dde5129f866e1c6f7ed611b336c1bc37ea95552431aedfd829ab4";
+
+    @Param({"HS256", "ES256", "EdDSA"})
+    private String scheme;
+
+    private Key signingKey;
+    private JwtParser parser;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        switch (scheme) {
+            case "HS256" -> {
+                signingKey = Keys.hmacShaKeyFor(SECRET.getBytes());
+                parser = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes())).build();
+            }
+            case "ES256" -> {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+                KeyPair keyPair = generator.generateKeyPair();
+                signingKey = keyPair.getPrivate();
+                parser = Jwts.parser().verifyWith(keyPair.getPublic()).build();
+            }
+            case "EdDSA" -> {
+                KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+                signingKey = keyPair.getPrivate();
+                parser = Jwts.parser().verifyWith(keyPair.getPublic()).build();
+            }
+            default -> throw new IllegalArgumentException(scheme);
+        }
+        token = sign();
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public String sign() {
+        return Jwts.builder()
+                .header().keyId("benchmark").and()
+                .id(UUID.randomUUID().toString())
+                .subject("user@example.com")
+                .claim("userId", "1")
+                .claim("email", "user@example.com")
+                .claim("role", "USER")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(signingKey)
+                .compact();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SignatureSchemeBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.authservice;
+
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.authservcie.model.Role;
+import org.example.authservcie.model.User;
+import org.example.authservcie.repository.UserRepository;
+import org.example.authservcie.service.UserLookupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Нагрузка в духе JwtAuthFilter: много запросов от небольшого числа пользователей.
+ * Считает обращения к UserRepository на запрос с кешем "users" и без него.
+ */
+@SpringJUnitConfig(UserCacheLoadTest.CacheTestConfig.class)
+public class UserCacheLoadTest {
+    private static final int USERS = 100;
+    private static final int REQUESTS = 20_000;
+    private static final int THREADS = 8;
+    private static final AtomicInteger QUERIES = new AtomicInteger();
+
+    @Autowired
+    private UserLookupService userLookupService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(UserLookupService.CACHE_NAME).clear();
+        QUERIES.set(0);
+    }
+
+    @Test
+    @DisplayName("findByEmail_ShouldQueryRepositoryOncePerUser_WhenUnderLoad")
+    public void cachedLookupLoadTest() throws Exception {
+        runLoad();
+        int cachedQueries = QUERIES.get();
+
+        // Каждый пользователь грузится из БД один раз, с запасом на одновременные промахи
+        assertThat(cachedQueries).isLessThanOrEqualTo(USERS * THREADS);
+        assertThat(cachedQueries).isLessThan(REQUESTS / 20);
+    }
+
+    @Test
+    @DisplayName("findByEmail_ShouldReload_WhenUserEvictedOrUnknown")
+    public void evictTest() {
+        userLookupService.findByEmail("user1@example.com");
+        userLookupService.findByEmail("user1@example.com");
+        assertThat(QUERIES.get()).isEqualTo(1);
+
+        userLookupService.evict("user1@example.com");
+        userLookupService.findByEmail("user1@example.com");
+        assertThat(QUERIES.get()).isEqualTo(2);
+
+        userLookupService.findByEmail("missing@example.com");
+        userLookupService.findByEmail("missing@example.com");
+        assertThat(QUERIES.get()).isEqualTo(4);
+    }
+
+    private void runLoad() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < REQUESTS / THREADS; i++) {
+                        int userId = ThreadLocalRandom.current().nextInt(USERS);
+                        assertThat(userLookupService.findByEmail("user" + userId + "@example.com")).isPresent();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Configuration
+    @EnableCaching
+    static class CacheTestConfig {
+        @Bean
+        public CacheManager cacheManager() {
+            CaffeineCacheManager cacheManager = new CaffeineCacheManager(UserLookupService.CACHE_NAME);
+            cacheManager.setCaffeineSpec(CaffeineSpec.parse("maximumSize=10000,expireAfterWrite=5m,recordStats"));
+            return cacheManager;
+        }
+
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        public UserRepository userRepository() {
+            UserRepository userRepository = mock(UserRepository.class);
+            when(userRepository.findUserByEmail(anyString())).thenAnswer(invocation -> {
+                QUERIES.incrementAndGet();
+                String email = invocation.getArgument(0);
+                if (!email.startsWith("user")) {
+                    return Optional.empty();
+                }
+                return Optional.of(User.builder()
+                        .id(1L)
+                        .name("user")
+                        .email(email)
+                        .password("{bcrypt}hash")
+                        .role(Role.USER)
+                        .build());
+            });
+            return userRepository;
+        }
+
+        @Bean
+        public UserLookupService userLookupService(UserRepository userRepository, MeterRegistry meterRegistry) {
+            return new UserLookupService(userRepository, meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package org.example.authservice;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.example.authservcie.config.UserImportProperties;
+import org.example.authservcie.model.Role;
+import org.example.authservcie.model.User;
+import org.example.authservcie.repository.UserRepository;
+import org.example.authservcie.service.OutboxService;
+import org.example.authservcie.service.UserImportService;
+import org.example.authservcie.service.UserImportService.Format;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Импорт целиком через UserImportService: БД, хеширование и outbox заменены заглушками,
+ * разбор, проверка, куски и формат ответа - настоящие.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class UserImportServiceTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Set<String> registeredEmails = new HashSet<>();
+    // Email, который параллельная регистрация заняла между проверкой и вставкой
+    private final Set<String> raceEmails = new HashSet<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserImportService userImportService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(passwordEncoder.encode(any())).thenAnswer(invocation -> "hash:" + invocation.getArgument(0));
+        when(userRepository.findExistingEmails(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> emails = invocation.getArgument(0);
+            return emails.stream().filter(registeredEmails::contains).collect(Collectors.toSet());
+        });
+        when(namedParameterJdbcTemplate.getJdbcTemplate()).thenReturn(jdbcTemplate);
+        // Вставленные строки: свой хеш, либо чужой - если email занят параллельной регистрацией
+        when(namedParameterJdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenAnswer(invocation -> {
+                    MapSqlParameterSource params = invocation.getArgument(1);
+                    Collection<String> emails = (Collection<String>) params.getValue("emails");
+                    return emails.stream()
+                            .map(email -> User.builder()
+                                    .id(ids.incrementAndGet())
+                                    .name("name")
+                                    .email(email)
+                                    .password(raceEmails.contains(email) ? "other" : "hash:pw-" + email)
+                                    .role(Role.USER)
+                                    .build())
+                            .toList();
+                });
+        createService(500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userImportService.shutdown();
+    }
+
+    @Test
+    @DisplayName("importUsers_ShouldReturnResultPerRow_WhenRowsMixed")
+    public void mixedRowsTest() throws IOException {
+        registeredEmails.add("taken@example.com");
+
+        List<JsonNode> lines = importNdjson(
+                row("Ann", "ann@example.com"),
+                "{not json",
+                row("Bob", "not-an-email"),
+                row("Ann again", "ann@example.com"),
+                "",
+                row("Taken", "taken@example.com"),
+                row("Carl", "carl@example.com"));
+
+        assertThat(lines).hasSize(7);
+        assertResult(lines.get(0), 1, "ann@example.com", "CREATED");
+        assertResult(lines.get(1), 2, null, "INVALID");
+        assertThat(lines.get(1).get("error").asText()).isEqualTo("Unreadable row");
+        assertResult(lines.get(2), 3, "not-an-email", "INVALID");
+        assertThat(lines.get(2).get("error").asText()).startsWith("email ");
+        assertResult(lines.get(3), 4, "ann@example.com", "DUPLICATE");
+        // Пустая строка 5 пропускается, но номера строк сохраняются
+        assertResult(lines.get(4), 6, "taken@example.com", "EXISTS");
+        assertResult(lines.get(5), 7, "carl@example.com", "CREATED");
+
+        verify(passwordEncoder, times(2)).encode(any());
+        ArgumentCaptor<List<User>> enqueued = outboxCaptor();
+        verify(outboxService).enqueueProfileCreations(enqueued.capture());
+        assertThat(enqueued.getValue()).extracting(User::getEmail)
+                .containsExactlyInAnyOrder("ann@example.com", "carl@example.com");
+    }
+
+    @Test
+    @DisplayName("importUsers_ShouldCountEveryStatus_WhenSummaryWritten")
+    public void summaryLineTest() throws IOException {
+        registeredEmails.add("taken@example.com");
+
+        List<JsonNode> lines = importNdjson(
+                row("Ann", "ann@example.com"),
+                row("Ann", "ann@example.com"),
+                row("Taken", "taken@example.com"),
+                row("", "blank@example.com"),
+                row("Carl", "carl@example.com"));
+
+        JsonNode summary = lines.get(lines.size() - 1).get("summary");
+        assertThat(summary.get("CREATED").asLong()).isEqualTo(2);
+        assertThat(summary.get("DUPLICATE").asLong()).isEqualTo(1);
+        assertThat(summary.get("EXISTS").asLong()).isEqualTo(1);
+        assertThat(summary.get("INVALID").asLong()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("importUsers_ShouldDetectDuplicates_WhenAcrossChunkBoundaries")
+    public void chunkBoundariesTest() throws IOException {
+        createService(2);
+
+        List<JsonNode> lines = importNdjson(
+                row("A", "a@example.com"),
+                row("B", "b@example.com"),
+                row("A", "a@example.com"),
+                row("C", "c@example.com"),
+                row("D", "d@example.com"));
+
+        assertThat(lines).hasSize(6);
+        assertResult(lines.get(2), 3, "a@example.com", "DUPLICATE");
+        assertResult(lines.get(4), 5, "d@example.com", "CREATED");
+        // Три куска: [a, b], [a, c], [d]; в каждом одна проверка email и одна вставка
+        verify(userRepository, times(3)).findExistingEmails(anyCollection());
+        verify(outboxService, times(3)).enqueueProfileCreations(any());
+        assertThat(lines.get(5).get("summary").get("CREATED").asLong()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("importUsers_ShouldReportExists_WhenEmailRegisteredConcurrently")
+    public void concurrentRegistrationTest() throws IOException {
+        raceEmails.add("race@example.com");
+
+        List<JsonNode> lines = importNdjson(
+                row("Race", "race@example.com"),
+                row("Ann", "ann@example.com"));
+
+        assertResult(lines.get(0), 1, "race@example.com", "EXISTS");
+        assertResult(lines.get(1), 2, "ann@example.com", "CREATED");
+        ArgumentCaptor<List<User>> enqueued = outboxCaptor();
+        verify(outboxService).enqueueProfileCreations(enqueued.capture());
+        assertThat(enqueued.getValue()).extracting(User::getEmail).containsExactly("ann@example.com");
+    }
+
+    @Test
+    @DisplayName("importUsers_ShouldNumberRowsFromHeader_WhenCsvUploaded")
+    public void csvImportTest() throws IOException {
+        registeredEmails.add("taken@example.com");
+        String csv = """
+                name,email,password,role
+                Ann,ann@example.com,pw-ann@example.com,
+                Taken,taken@example.com,pw-taken@example.com,USER
+                """;
+
+        List<JsonNode> lines = importUsers(csv, Format.CSV);
+
+        assertResult(lines.get(0), 2, "ann@example.com", "CREATED");
+        assertResult(lines.get(1), 3, "taken@example.com", "EXISTS");
+    }
+
+    @Test
+    @DisplayName("importUsers_ShouldNotHashOrWrite_WhenNothingToCreate")
+    public void nothingToCreateTest() throws IOException {
+        registeredEmails.add("taken@example.com");
+
+        importNdjson(row("Taken", "taken@example.com"), "{not json");
+
+        verify(passwordEncoder, never()).encode(any());
+        verify(outboxService, never()).enqueueProfileCreations(any());
+    }
+
+    private void createService(int chunkSize) {
+        if (userImportService != null) {
+            userImportService.shutdown();
+        }
+        UserImportProperties properties = new UserImportProperties();
+        properties.setChunkSize(chunkSize);
+        properties.setHashingThreads(2);
+        userImportService = new UserImportService(userRepository, namedParameterJdbcTemplate, passwordEncoder,
+                outboxService, new TransactionTemplate(transactionManager),
+                Validation.buildDefaultValidatorFactory().getValidator(), objectMapper, properties,
+                new SimpleMeterRegistry());
+    }
+
+    private List<JsonNode> importNdjson(String... rows) throws IOException {
+        return importUsers(String.join("\n", rows), Format.NDJSON);
+    }
+
+    private List<JsonNode> importUsers(String input, Format format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        userImportService.importUsers(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), format, out);
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private static String row(String name, String email) {
+        return """
+                {"name":"%s","email":"%s","password":"pw-%s"}""".formatted(name, email, email);
+    }
+
+    private static void assertResult(JsonNode result, long row, String email, String status) {
+        assertThat(result.get("row").asLong()).isEqualTo(row);
+        assertThat(result.hasNonNull("email") ? result.get("email").asText() : null).isEqualTo(email);
+        assertThat(result.get("status").asText()).isEqualTo(status);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<User>> outboxCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+}
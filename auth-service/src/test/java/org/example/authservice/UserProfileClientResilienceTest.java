@@ -0,0 +1,213 @@
+package org.example.authservice;
+
+import com.sun.net.httpserver.HttpServer;
+import feign.Feign;
+import feign.FeignException;
+import feign.RetryableException;
+import feign.Retryer;
+import feign.hc5.ApacheHttp5Client;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.example.authservcie.config.FeignConfig;
+import org.example.authservcie.config.UserClientProperties;
+import org.example.authservcie.dto.CreateUserProfileRequest;
+import org.example.authservcie.dto.CreateUserProfilesRequest;
+import org.example.authservcie.exception.ServiceUnavailableException;
+import org.example.authservcie.model.Role;
+import org.example.authservcie.service.client.ResilientUserProfileClient;
+import org.example.authservcie.service.client.UserProfileClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * UserProfileClient с пулом, таймаутами, breaker и bulkhead из FeignConfig против локальной
+ * заглушки user-service, которая отвечает с заданной задержкой и статусом.
+ */
+public class UserProfileClientResilienceTest {
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile long latencyMillis;
+    private volatile int responseStatus = 204;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private MeterRegistry meterRegistry;
+    private CloseableHttpClient httpClient;
+    private CircuitBreaker circuitBreaker;
+    private UserProfileClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/users/batch", exchange -> {
+            requests.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(responseStatus, -1);
+            exchange.close();
+        });
+        server.start();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("createUsers_ShouldOpenBreakerAndFailFast_WhenUserServiceSlow")
+    public void slowServiceOpensBreakerTest() {
+        createClient(Duration.ofMillis(300), 10);
+        latencyMillis = 1000;
+
+        for (int i = 0; i < 4; i++) {
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> client.createUsers(request()))
+                    .isInstanceOf(RetryableException.class);
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(900));
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> client.createUsers(request()))
+                .isInstanceOf(ServiceUnavailableException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(50));
+        assertThat(requests.get()).isEqualTo(4);
+        assertThat(meterRegistry.get("resilience4j.circuitbreaker.state")
+                .tag("name", FeignConfig.USER_SERVICE)
+                .tag("state", "open")
+                .gauge()
+                .value()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("createUsers_ShouldKeepBreakerClosed_WhenClientErrors")
+    public void clientErrorsKeepBreakerClosedTest() {
+        createClient(Duration.ofSeconds(1), 10);
+        responseStatus = 400;
+
+        for (int i = 0; i < 6; i++) {
+            assertThatThrownBy(() -> client.createUsers(request()))
+                    .isInstanceOf(FeignException.BadRequest.class);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("createUsers_ShouldRejectExcessCalls_WhenBulkheadFull")
+    public void bulkheadRejectsExcessCallsTest() throws Exception {
+        createClient(Duration.ofSeconds(2), 2);
+        latencyMillis = 500;
+
+        int calls = 6;
+        ExecutorService callers = Executors.newFixedThreadPool(calls);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < calls; i++) {
+            results.add(callers.submit(() -> {
+                start.await();
+                try {
+                    client.createUsers(request());
+                    return true;
+                } catch (ServiceUnavailableException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int succeeded = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                succeeded++;
+            }
+        }
+        callers.shutdown();
+
+        assertThat(succeeded).isEqualTo(2);
+        assertThat(requests.get()).isEqualTo(2);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("createUsers_ShouldReusePooledConnection_WhenCalledRepeatedly")
+    public void poolMetricsTest() {
+        createClient(Duration.ofSeconds(1), 10);
+
+        for (int i = 0; i < 5; i++) {
+            client.createUsers(request());
+        }
+
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.max").gauge().value())
+                .isEqualTo(50.0);
+        // Соединение вернулось в пул и переиспользуется, а не открывается на каждый вызов
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("state", "available")
+                .gauge()
+                .value()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("state", "leased")
+                .gauge()
+                .value()).isZero();
+    }
+
+    private void createClient(Duration readTimeout, int maxConcurrentCalls) {
+        UserClientProperties properties = new UserClientProperties();
+        properties.setReadTimeout(readTimeout);
+        properties.getCircuitBreaker().setSlidingWindowSize(4);
+        properties.getCircuitBreaker().setMinimumNumberOfCalls(4);
+        properties.getBulkhead().setMaxConcurrentCalls(maxConcurrentCalls);
+
+        FeignConfig feignConfig = new FeignConfig();
+        PoolingHttpClientConnectionManager connectionManager =
+                feignConfig.userClientConnectionManager(properties, meterRegistry);
+        httpClient = feignConfig.feignHttpClient(connectionManager, properties);
+        UserProfileClient feignClient = Feign.builder()
+                .client(new ApacheHttp5Client(httpClient))
+                .contract(new SpringMvcContract())
+                .encoder(new SpringEncoder(() -> new HttpMessageConverters(new MappingJackson2HttpMessageConverter())))
+                .options(feignConfig.feignRequestOptions(properties))
+                // Как в Spring Cloud OpenFeign по умолчанию
+                .retryer(Retryer.NEVER_RETRY)
+                .target(UserProfileClient.class, "http://localhost:" + server.getAddress().getPort());
+        circuitBreaker = feignConfig.userServiceCircuitBreaker(properties, meterRegistry);
+        client = new ResilientUserProfileClient(feignClient, circuitBreaker,
+                feignConfig.userServiceBulkhead(properties, meterRegistry));
+    }
+
+    private static CreateUserProfilesRequest request() {
+        return new CreateUserProfilesRequest(
+                List.of(new CreateUserProfileRequest(1L, "user", "user@example.com", Role.USER)));
+    }
+}
@@ -17,6 +17,8 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/files")
@@ -29,8 +31,7 @@ public class FileController {
             @RequestParam("file") MultipartFile file,
             @RequestParam(value = "taskId", required = false) Long taskId,
             HttpServletRequest request) {
-        String jwt = jwtService.resolveToken(request);
-        Long userId = Long.parseLong(jwtService.extractUserId(jwt));
+        Long userId = Long.parseLong(jwtService.resolveUserId(request));
 
         FileMetadata metadata = fileStorageService.uploadFile(file, userId, taskId);
         return ResponseEntity.ok(mapToFileResponse(metadata));
@@ -42,6 +43,14 @@ public class FileController {
         return ResponseEntity.ok(mapToFileResponse(metadata));
     }
 
+    @GetMapping(params = "taskId")
+    public ResponseEntity<List<FileResponse>> getTaskFiles(@RequestParam Long taskId) {
+        List<FileResponse> files = fileStorageService.getTaskFiles(taskId).stream()
+                .map(this::mapToFileResponse)
+                .toList();
+        return ResponseEntity.ok(files);
+    }
+
     @GetMapping("/{fileId}/download")
     public ResponseEntity<String> generateDownloadUrl(@PathVariable Long fileId) {
         String downloadUrl = fileStorageService.generatePresignedUrl(fileId);
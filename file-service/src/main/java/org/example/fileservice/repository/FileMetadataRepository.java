@@ -4,6 +4,9 @@ import org.example.fileservice.model.FileMetadata;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface FileMetadataRepository extends JpaRepository<FileMetadata, Long> {
+    List<FileMetadata> findAllByTaskId(Long taskId);
 }
\ No newline at end of file
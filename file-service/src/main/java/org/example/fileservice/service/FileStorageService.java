@@ -4,10 +4,12 @@ import org.example.fileservice.model.FileMetadata;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.FileNotFoundException;
+import java.util.List;
 
 public interface FileStorageService {
     FileMetadata uploadFile(MultipartFile file, Long uploaderId, Long taskId);
     FileMetadata getFileMetadata(Long fileId);
+    List<FileMetadata> getTaskFiles(Long taskId);
     String generatePresignedUrl(Long fileId);
     void deleteFile(Long fileId);
     byte[] downloadFile(Long fileId);
@@ -26,6 +26,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -138,6 +139,15 @@ public class MinioFileStorageService implements FileStorageService {
         return metadata;
     }
 
+    @Override
+    public List<FileMetadata> getTaskFiles(Long taskId) {
+        if (taskId == null) {
+            throw new IllegalArgumentException("Task ID cannot be null");
+        }
+        // Только метаданные из БД, без обращения к хранилищу на каждый файл
+        return fileMetadataRepository.findAllByTaskId(taskId);
+    }
+
     private void validateFileExistsInStorage(FileMetadata metadata) {
         try {
             minioClient.statObject(
@@ -20,6 +20,8 @@ import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
@@ -77,8 +79,7 @@ public class FileControllerTest {
                 .taskId(456L)
                 .build();
 
-        when(jwtService.resolveToken(any(HttpServletRequest.class))).thenReturn("valid-token");
-        when(jwtService.extractUserId("valid-token")).thenReturn("123");
+        when(jwtService.resolveUserId(any(HttpServletRequest.class))).thenReturn("123");
         when(fileStorageService.uploadFile(any(), eq(123L), eq(456L)))
                 .thenReturn(fileMetadata);
 
@@ -93,8 +94,7 @@ public class FileControllerTest {
                 .andExpect(jsonPath("$.size").value(file.getSize()))
                 .andExpect(jsonPath("$.taskId").value(456L));
 
-        verify(jwtService, times(1)).resolveToken(any());
-        verify(jwtService, times(1)).extractUserId("valid-token");
+        verify(jwtService, times(1)).resolveUserId(any());
         verify(fileStorageService, times(1)).uploadFile(any(), eq(123L), eq(456L));
     }
 
@@ -136,6 +136,37 @@ public class FileControllerTest {
         verify(fileStorageService, times(1)).getFileMetadata(fileId);
     }
 
+    @Test
+    @DisplayName("getTaskFiles_ShouldReturnTaskFiles_WhenTaskIdGiven")
+    public void getTaskFilesTest() throws Exception {
+        Long taskId = 789L;
+        FileMetadata first = FileMetadata.builder()
+                .id(1L)
+                .originalFileName("document.pdf")
+                .contentType("application/pdf")
+                .fileSize(1024L)
+                .taskId(taskId)
+                .build();
+        FileMetadata second = FileMetadata.builder()
+                .id(2L)
+                .originalFileName("image.png")
+                .contentType("image/png")
+                .fileSize(2048L)
+                .taskId(taskId)
+                .build();
+
+        when(fileStorageService.getTaskFiles(taskId)).thenReturn(List.of(first, second));
+
+        mockMvc.perform(get(BASE_PATH).param("taskId", taskId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(jsonPath("$[1].originalName").value("image.png"))
+                .andExpect(jsonPath("$[1].taskId").value(taskId));
+
+        verify(fileStorageService, times(1)).getTaskFiles(taskId);
+    }
+
     @Test
     @DisplayName("generateDownloadUrl_ShouldReturnDownloadUrl_WhenFileExists")
     public void generateDownloadUrlTest() throws Exception {
@@ -0,0 +1,44 @@
+package org.example.gatewayserver.component;
+
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Проверка access-токена из заголовка Authorization: подпись (через кэш claims), срок,
+ * назначение токена и отзыв. Общая для глобального фильтра и контроллеров шлюза.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccessTokenVerifier {
+    private final JwtUtil jwtUtil;
+    private final JwtClaimsCache jwtClaimsCache;
+    private final RevokedTokens revokedTokens;
+
+    /**
+     * @return claims токена или пустой Mono, если токена нет или он не принимается
+     */
+    public Mono<Claims> verify(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return Mono.empty();
+        }
+        Claims claims;
+        try {
+            claims = jwtClaimsCache.getClaims(authHeader.substring(7));
+        } catch (Exception e) {
+            // Токен недействителен
+            return Mono.empty();
+        }
+        if (jwtUtil.isExpired(claims) || !jwtUtil.isAccessToken(claims)) {
+            return Mono.empty();
+        }
+        // Почти всегда фильтр Блума отвечает "нет", и запрос идёт дальше без обращения к auth-service
+        if (!revokedTokens.mightBeRevoked(claims.getId())) {
+            return Mono.just(claims);
+        }
+        return revokedTokens.isRevoked(claims.getId())
+                .filter(revoked -> !revoked)
+                .map(revoked -> claims);
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.gatewayserver.component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.example.gatewayserver.config.ConcurrencyLimitProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сброс нагрузки: на каждый маршрут свой адаптивный лимит одновременных запросов.
+ * При достижении лимита запрос сразу получает 503, а не ждёт в очереди Netty клиента
+ * до response-timeout.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConcurrencyLimitFilter implements GlobalFilter, Ordered {
+    public static final int ORDER = RateLimitFilter.ORDER + 10;
+
+    private final ConcurrencyLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AimdConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || route == null) {
+            return chain.filter(exchange);
+        }
+
+        String routeId = route.getId();
+        AimdConcurrencyLimiter limiter = limiters.computeIfAbsent(routeId, this::createLimiter);
+        if (!limiter.tryAcquire()) {
+            rejectedCounters.get(routeId).increment();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            return response.setComplete();
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    // Ответ из кэша шлюза ничего не говорит о нагрузке на сервис
+                    if (signal == SignalType.CANCEL
+                            || exchange.getAttributes().containsKey(ResponseCacheGatewayFilterFactory.CACHE_HIT_ATTR)) {
+                        limiter.ignore();
+                        return;
+                    }
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    boolean dropped = signal == SignalType.ON_ERROR
+                            || (status != null && status.is5xxServerError());
+                    limiter.release(System.nanoTime() - start, dropped);
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private AimdConcurrencyLimiter createLimiter(String routeId) {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(
+                properties.getInitialLimit(),
+                properties.getMinLimit(),
+                properties.getMaxLimit(),
+                properties.getLatencyThreshold().toNanos(),
+                properties.getBackoffRatio());
+
+        Gauge.builder("gateway.concurrency.limit", limiter, AimdConcurrencyLimiter::getLimit)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in-flight", limiter, AimdConcurrencyLimiter::getInFlight)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        rejectedCounters.put(routeId, Counter.builder("gateway.concurrency.rejected")
+                .tag("route", routeId)
+                .register(meterRegistry));
+        return limiter;
+    }
+}
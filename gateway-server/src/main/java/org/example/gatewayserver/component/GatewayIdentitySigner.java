@@ -0,0 +1,86 @@
+package org.example.gatewayserver.component;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Режим доверенного шлюза: после проверки JWT шлюз передаёт сервисам идентичность пользователя
+ * в заголовках X-User-*, подписанных HMAC-SHA256 общим с сервисами секретом.
+ * Сервисы проверяют одну короткую подпись вместо полного разбора JWT.
+ */
+@Component
+public class GatewayIdentitySigner {
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String EMAIL_HEADER = "X-User-Email";
+    public static final String ROLE_HEADER = "X-User-Role";
+    public static final String EXPIRES_HEADER = "X-User-Expires";
+    public static final String SIGNATURE_HEADER = "X-User-Signature";
+
+    private static final List<String> IDENTITY_HEADERS =
+            List.of(USER_ID_HEADER, EMAIL_HEADER, ROLE_HEADER, EXPIRES_HEADER, SIGNATURE_HEADER);
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final boolean enabled;
+    private final ThreadLocal<Mac> mac;
+
+    public GatewayIdentitySigner(@Value("${gateway.identity.enabled:false}") boolean enabled,
+                                 @Value("${gateway.identity.secret:}") String secret) {
+        if (enabled && secret.isBlank()) {
+            throw new IllegalStateException("gateway.identity.secret must be set when gateway.identity.enabled=true");
+        }
+        this.enabled = enabled;
+        SecretKeySpec key = enabled ? new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM) : null;
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot initialize " + ALGORITHM, e);
+            }
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Удаляет присланные клиентом заголовки X-User-*, чтобы их нельзя было подделать.
+     */
+    public void removeIdentity(HttpHeaders headers) {
+        IDENTITY_HEADERS.forEach(headers::remove);
+    }
+
+    public void addIdentity(HttpHeaders headers, Claims claims) {
+        String userId = valueOrEmpty(claims.get("userId", String.class));
+        String email = valueOrEmpty(claims.get("email", String.class));
+        String role = valueOrEmpty(claims.get("role", String.class));
+        String expires = String.valueOf(claims.getExpiration().getTime() / 1000);
+
+        headers.set(USER_ID_HEADER, userId);
+        headers.set(EMAIL_HEADER, email);
+        headers.set(ROLE_HEADER, role);
+        headers.set(EXPIRES_HEADER, expires);
+        headers.set(SIGNATURE_HEADER, sign(userId, email, role, expires));
+    }
+
+    public String sign(String userId, String email, String role, String expires) {
+        String payload = userId + '\n' + email + '\n' + role + '\n' + expires;
+        byte[] signature = mac.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+
+    private static String valueOrEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
@@ -0,0 +1,307 @@
+package org.example.gatewayserver.component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.example.gatewayserver.loadbalancer.InstanceLatencyStats;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Хеджирование GET-запросов. Если первая попытка не ответила за заданный перцентиль
+ * недавней задержки маршрута, запрос отправляется второму экземпляру из Eureka;
+ * берётся первый ответ, проигравшая попытка отменяется. Число вторых попыток
+ * ограничено {@link RetryBudget}.
+ * <p>
+ * Как и NettyRoutingFilter, каждая попытка ограничена response-timeout маршрута,
+ * заголовки проходят через {@link HttpHeadersFilter} (в том числе удаление hop-by-hop).
+ * Если ни одна попытка не дала ответа, клиент получает 504 при таймауте и 502 в остальных случаях.
+ * <p>
+ * Включается на маршруте фильтром {@code - name: Hedge}.
+ */
+@Component
+public class HedgeGatewayFilterFactory extends AbstractGatewayFilterFactory<HedgeGatewayFilterFactory.Config> {
+    public static final int ORDER = ResponseCacheGatewayFilterFactory.ORDER + 1;
+
+    private final LoadBalancerClientFactory loadBalancerClientFactory;
+    private final WebClient webClient;
+    private final MeterRegistry meterRegistry;
+    private final HttpClientProperties httpClientProperties;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider;
+    private volatile List<HttpHeadersFilter> headersFilters;
+
+    public HedgeGatewayFilterFactory(LoadBalancerClientFactory loadBalancerClientFactory,
+                                     WebClient.Builder webClientBuilder,
+                                     MeterRegistry meterRegistry,
+                                     HttpClientProperties httpClientProperties,
+                                     ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider) {
+        super(Config.class);
+        this.loadBalancerClientFactory = loadBalancerClientFactory;
+        this.webClient = webClientBuilder.build();
+        this.meterRegistry = meterRegistry;
+        this.httpClientProperties = httpClientProperties;
+        this.headersFiltersProvider = headersFiltersProvider;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        List<PathPattern> paths = config.getPaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+        LatencyWindow latencyWindow = new LatencyWindow(config.getPercentile());
+        RetryBudget retryBudget = new RetryBudget(config.getBudgetRatio(), config.getBudgetMaxTokens());
+
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            URI url = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+            if (exchange.getRequest().getMethod() != HttpMethod.GET || url == null || !"lb".equals(url.getScheme())
+                    || !matches(paths, exchange)) {
+                return chain.filter(exchange);
+            }
+
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String routeId = route != null ? route.getId() : url.getHost();
+            retryBudget.deposit();
+
+            String serviceId = url.getHost();
+            ServiceInstanceListSupplier supplier = loadBalancerClientFactory
+                    .getLazyProvider(serviceId, ServiceInstanceListSupplier.class)
+                    .getIfAvailable();
+            if (supplier == null) {
+                return chain.filter(exchange);
+            }
+            InstanceLatencyStats stats = loadBalancerClientFactory.getInstance(serviceId, InstanceLatencyStats.class);
+
+            Mono<ServiceInstance> primaryInstance = Mono.from(loadBalancerClientFactory.getInstance(serviceId)
+                            .choose(new DefaultRequest<>()))
+                    .filter(Response::hasServer)
+                    .map(Response::getServer);
+
+            return Mono.zip(primaryInstance, supplier.get().next())
+                    .map(tuple -> new Targets(tuple.getT1(), pickSecondary(tuple.getT2(), tuple.getT1(), stats)))
+                    .defaultIfEmpty(Targets.NONE)
+                    .flatMap(targets -> {
+                        if (targets.secondary() == null) {
+                            // Второго экземпляра нет - обычная маршрутизация
+                            return chain.filter(exchange);
+                        }
+                        return hedge(exchange, url, targets, stats, config, latencyWindow, retryBudget, routeId,
+                                responseTimeout(route));
+                    });
+        }, ORDER);
+    }
+
+    private Mono<Void> hedge(ServerWebExchange exchange, URI url, Targets targets, InstanceLatencyStats stats,
+                             Config config, LatencyWindow latencyWindow, RetryBudget retryBudget, String routeId,
+                             Duration responseTimeout) {
+        Duration delay = hedgeDelay(config, latencyWindow);
+        Counter hedgedCounter = meterRegistry.counter("gateway.hedge.requests", "route", routeId, "outcome", "sent");
+        Counter deniedCounter = meterRegistry.counter("gateway.hedge.requests", "route", routeId, "outcome", "budget-exhausted");
+
+        HttpHeaders requestHeaders = HttpHeadersFilter.filterRequest(getHeadersFilters(), exchange);
+        Mono<ResponseEntity<byte[]>> first = send(requestHeaders, url, targets.primary(), stats, responseTimeout);
+        Mono<ResponseEntity<byte[]>> second = Mono.defer(() -> {
+                    if (!retryBudget.tryWithdraw()) {
+                        deniedCounter.increment();
+                        return Mono.<ResponseEntity<byte[]>>empty();
+                    }
+                    hedgedCounter.increment();
+                    return send(requestHeaders, url, targets.secondary(), stats, responseTimeout);
+                })
+                .delaySubscription(delay);
+
+        long start = System.nanoTime();
+        return Mono.firstWithValue(first, second)
+                .doOnNext(entity -> latencyWindow.record(System.nanoTime() - start))
+                // Обе попытки упали, либо первая упала, а на вторую не хватило бюджета
+                .onErrorMap(HedgeGatewayFilterFactory::toGatewayError)
+                .flatMap(entity -> writeResponse(exchange, entity));
+    }
+
+    private Mono<ResponseEntity<byte[]>> send(HttpHeaders requestHeaders, URI url, ServiceInstance instance,
+                                              InstanceLatencyStats stats, Duration responseTimeout) {
+        URI uri = UriComponentsBuilder.fromUri(url)
+                .scheme(instance.isSecure() ? "https" : "http")
+                .host(instance.getHost())
+                .port(instance.getPort())
+                .build(true)
+                .toUri();
+
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            stats.onStart(instance);
+            Mono<ResponseEntity<byte[]>> attempt = webClient.get()
+                    .uri(uri)
+                    .headers(headers -> {
+                        headers.addAll(requestHeaders);
+                        headers.remove(HttpHeaders.HOST);
+                    })
+                    .exchangeToMono(response -> response.toEntity(byte[].class));
+            if (responseTimeout != null) {
+                attempt = attempt.timeout(responseTimeout, Mono.error(() -> new TimeoutException(
+                        "Response took longer than timeout: " + responseTimeout)));
+            }
+            return attempt
+                    .doFinally(signal -> {
+                        if (signal == SignalType.CANCEL) {
+                            // Проигравшая попытка: время ответа неизвестно
+                            stats.onComplete(instance, -1, false);
+                        } else {
+                            stats.onComplete(instance, System.nanoTime() - start, signal == SignalType.ON_ERROR);
+                        }
+                    });
+        });
+    }
+
+    private Mono<Void> writeResponse(ServerWebExchange exchange, ResponseEntity<byte[]> entity) {
+        ServerWebExchangeUtils.setAlreadyRouted(exchange);
+        ServerHttpResponse response = exchange.getResponse();
+        byte[] body = entity.getBody() != null ? entity.getBody() : new byte[0];
+
+        response.setStatusCode(entity.getStatusCode());
+        response.getHeaders().putAll(HttpHeadersFilter.filter(getHeadersFilters(), entity.getHeaders(), exchange,
+                HttpHeadersFilter.Type.RESPONSE));
+        response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private List<HttpHeadersFilter> getHeadersFilters() {
+        if (headersFilters == null) {
+            headersFilters = headersFiltersProvider.getIfAvailable(List::of);
+        }
+        return headersFilters;
+    }
+
+    /**
+     * response-timeout из метаданных маршрута (в мс, отрицательное значение отключает таймаут),
+     * иначе глобальный spring.cloud.gateway.httpclient.response-timeout - как в NettyRoutingFilter.
+     */
+    private Duration responseTimeout(Route route) {
+        Object routeTimeout = route != null
+                ? route.getMetadata().get(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR)
+                : null;
+        if (routeTimeout instanceof Number number) {
+            long millis = number.longValue();
+            return millis >= 0 ? Duration.ofMillis(millis) : null;
+        }
+        return httpClientProperties.getResponseTimeout();
+    }
+
+    private static Throwable toGatewayError(Throwable error) {
+        HttpStatus status = timedOut(error) ? HttpStatus.GATEWAY_TIMEOUT : HttpStatus.BAD_GATEWAY;
+        return new ResponseStatusException(status, error.getMessage(), error);
+    }
+
+    /**
+     * firstWithValue сворачивает ошибки попыток в составное исключение, поэтому таймаут ищется по всей цепочке.
+     */
+    private static boolean timedOut(Throwable error) {
+        if (error == null) {
+            return false;
+        }
+        if (error instanceof TimeoutException) {
+            return true;
+        }
+        for (Throwable suppressed : error.getSuppressed()) {
+            if (timedOut(suppressed)) {
+                return true;
+            }
+        }
+        return error.getCause() != error && timedOut(error.getCause());
+    }
+
+    /**
+     * Пути сверяются с исходным путём клиента, до RewritePath.
+     */
+    private static boolean matches(List<PathPattern> paths, ServerWebExchange exchange) {
+        if (paths.isEmpty()) {
+            return true;
+        }
+        Set<URI> originalUrls = exchange.getAttributeOrDefault(
+                ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR, Collections.emptySet());
+        PathContainer path = originalUrls.isEmpty()
+                ? exchange.getRequest().getPath().pathWithinApplication()
+                : PathContainer.parsePath(originalUrls.iterator().next().getRawPath());
+        return paths.stream().anyMatch(pattern -> pattern.matches(path));
+    }
+
+    private static ServiceInstance pickSecondary(List<ServiceInstance> instances, ServiceInstance primary,
+                                                 InstanceLatencyStats stats) {
+        return instances.stream()
+                .filter(instance -> !(instance.getHost().equals(primary.getHost()) && instance.getPort() == primary.getPort()))
+                .min(Comparator.comparingDouble(stats::score))
+                .orElse(null);
+    }
+
+    private static Duration hedgeDelay(Config config, LatencyWindow latencyWindow) {
+        long percentileNanos = latencyWindow.percentileNanos();
+        if (percentileNanos < 0) {
+            // Пока замеров мало, хеджируем только очень медленные запросы
+            return config.getMaxDelay();
+        }
+        long nanos = Math.max(config.getMinDelay().toNanos(), Math.min(config.getMaxDelay().toNanos(), percentileNanos));
+        return Duration.ofNanos(nanos);
+    }
+
+    private record Targets(ServiceInstance primary, ServiceInstance secondary) {
+        private static final Targets NONE = new Targets(null, null);
+    }
+
+    @Setter
+    @Getter
+    public static class Config {
+        /**
+         * Перцентиль недавней задержки маршрута, после которого отправляется вторая попытка.
+         */
+        private double percentile = 95;
+        /**
+         * Пути, для которых включено хеджирование; пусто - все GET-запросы маршрута.
+         * Ответ буферизуется целиком, поэтому скачивание файлов сюда включать не стоит.
+         */
+        private List<String> paths = new ArrayList<>();
+        private Duration minDelay = Duration.ofMillis(10);
+        private Duration maxDelay = Duration.ofSeconds(1);
+        /**
+         * Доля запросов, которую разрешено продублировать.
+         */
+        private double budgetRatio = 0.1;
+        private int budgetMaxTokens = 20;
+    }
+}
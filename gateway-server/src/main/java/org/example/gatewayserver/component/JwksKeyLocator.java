@@ -0,0 +1,126 @@
+package org.example.gatewayserver.component;
+
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.Locator;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.Jwks;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Открытые ключи подписи из JWKS auth-service. Обновляются в фоне; на горячем пути
+ * только поиск по kid в неизменяемой карте. Неизвестный kid запускает внеочередное
+ * обновление (не чаще min-refresh-interval), сам токен при этом отклоняется.
+ */
+@Slf4j
+@Component
+public class JwksKeyLocator implements Locator<Key> {
+    private final WebClient webClient;
+    private final Duration refreshInterval;
+    private final long minRefreshIntervalNanos;
+    private final Duration timeout;
+    private final AtomicLong lastRefresh = new AtomicLong(System.nanoTime());
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private Disposable sync;
+
+    public JwksKeyLocator(WebClient.Builder webClientBuilder,
+                          LoadBalancedExchangeFilterFunction loadBalancedExchangeFilterFunction,
+                          @Value("${gateway.jwks.refresh-interval:5m}") Duration refreshInterval,
+                          @Value("${gateway.jwks.min-refresh-interval:10s}") Duration minRefreshInterval,
+                          @Value("${gateway.jwks.timeout:2s}") Duration timeout) {
+        this.webClient = webClientBuilder.clone()
+                .filter(loadBalancedExchangeFilterFunction)
+                .build();
+        this.refreshInterval = refreshInterval;
+        this.minRefreshIntervalNanos = minRefreshInterval.toNanos();
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Key locate(Header header) {
+        String keyId = header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null;
+        if (keyId != null) {
+            PublicKey key = keys.get(keyId);
+            if (key == null) {
+                requestRefresh();
+                throw new UnsupportedJwtException("Unknown signing key: " + keyId);
+            }
+            return key;
+        }
+        throw new UnsupportedJwtException("Token has no key id");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startSync() {
+        sync = Flux.interval(Duration.ZERO, refreshInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh(), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stopSync() {
+        if (sync != null) {
+            sync.dispose();
+        }
+    }
+
+    private void requestRefresh() {
+        long last = lastRefresh.get();
+        long now = System.nanoTime();
+        if (now - last >= minRefreshIntervalNanos && lastRefresh.compareAndSet(last, now)) {
+            refresh().subscribe();
+        }
+    }
+
+    private Mono<Void> refresh() {
+        return webClient.get()
+                .uri("http://auth-service/auth/.well-known/jwks.json")
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(timeout)
+                .doOnNext(json -> {
+                    Map<String, PublicKey> loaded = parse(json);
+                    // Пустой набор - скорее сбой auth-service, чем отзыв всех ключей
+                    if (!loaded.isEmpty()) {
+                        if (!loaded.keySet().equals(keys.keySet())) {
+                            log.info("JWKS updated, signing keys: {}", loaded.keySet());
+                        }
+                        keys = loaded;
+                    }
+                })
+                .onErrorResume(e -> {
+                    log.warn("JWKS refresh failed: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    static Map<String, PublicKey> parse(String json) {
+        Map<String, PublicKey> loaded = new HashMap<>();
+        for (Jwk<?> jwk : Jwks.setParser().build().parse(json).getKeys()) {
+            if (jwk.getId() != null && jwk.toKey() instanceof PublicKey publicKey) {
+                loaded.put(jwk.getId(), publicKey);
+            }
+        }
+        return Map.copyOf(loaded);
+    }
+}
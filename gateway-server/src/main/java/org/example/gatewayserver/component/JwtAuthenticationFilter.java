@@ -1,8 +1,10 @@
 package org.example.gatewayserver.component;
 
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
@@ -11,36 +13,55 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.util.function.Function;
+
 @Component
 @RequiredArgsConstructor
-public class JwtAuthenticationFilter implements GlobalFilter {
-    private final JwtUtil jwtUtil;
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+    public static final String CLAIMS_ATTR = JwtAuthenticationFilter.class.getName() + ".claims";
+    public static final int ORDER = -200;
+
+    private final AccessTokenVerifier accessTokenVerifier;
+    private final GatewayIdentitySigner gatewayIdentitySigner;
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        ServerHttpRequest request = exchange.getRequest();
-        ServerHttpResponse response = exchange.getResponse();
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(gatewayIdentitySigner::removeIdentity)
+                .build();
+        ServerWebExchange current = exchange.mutate().request(request).build();
 
         String requestPath = request.getPath().toString();
         if (requestPath.startsWith("/auth")) {
-            return chain.filter(exchange);
+            return chain.filter(current);
         }
 
-        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            try {
-                response.setStatusCode(HttpStatus.UNAUTHORIZED);
-                return !jwtUtil.isTokenExpired(token) ? chain.filter(exchange): response.setComplete();
-            } catch (Exception e) {
-                // Токен недействителен
-                response.setStatusCode(HttpStatus.UNAUTHORIZED);
-                return response.setComplete();
-            }
-        } else {
-            //в заголовке отсутствует Authorization
-            response.setStatusCode(HttpStatus.UNAUTHORIZED);
-            return response.setComplete();
+        // Заголовка Authorization нет или токен не принят
+        ServerHttpResponse response = current.getResponse();
+        return accessTokenVerifier.verify(request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION))
+                .map(claims -> proceed(current, chain, request, claims))
+                .defaultIfEmpty(Mono.defer(() -> {
+                    response.setStatusCode(HttpStatus.UNAUTHORIZED);
+                    return response.setComplete();
+                }))
+                .flatMap(Function.identity());
+    }
+
+    private Mono<Void> proceed(ServerWebExchange exchange, GatewayFilterChain chain,
+                               ServerHttpRequest request, Claims claims) {
+        exchange.getAttributes().put(CLAIMS_ATTR, claims);
+        if (gatewayIdentitySigner.isEnabled()) {
+            exchange = exchange.mutate()
+                    .request(request.mutate()
+                            .headers(headers -> gatewayIdentitySigner.addIdentity(headers, claims))
+                            .build())
+                    .build();
         }
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
     }
 }
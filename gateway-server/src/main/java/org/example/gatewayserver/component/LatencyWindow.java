@@ -0,0 +1,48 @@
+package org.example.gatewayserver.component;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Кольцевой буфер последних замеров задержки. Перцентиль пересчитывается не на каждый
+ * запрос, а раз в {@link #RECOMPUTE_EVERY} замеров.
+ */
+public class LatencyWindow {
+    private static final int SIZE = 1024;
+    private static final int RECOMPUTE_EVERY = 64;
+
+    private final double percentile;
+    private final AtomicLongArray samples = new AtomicLongArray(SIZE);
+    private final AtomicLong count = new AtomicLong();
+    private volatile long cachedPercentileNanos = -1;
+
+    public LatencyWindow(double percentile) {
+        this.percentile = percentile;
+    }
+
+    public void record(long latencyNanos) {
+        long index = count.getAndIncrement();
+        samples.set((int) (index % SIZE), latencyNanos);
+        if ((index + 1) % RECOMPUTE_EVERY == 0) {
+            cachedPercentileNanos = compute(Math.min(index + 1, SIZE));
+        }
+    }
+
+    /**
+     * @return перцентиль задержки или -1, пока не набрано {@link #RECOMPUTE_EVERY} замеров
+     */
+    public long percentileNanos() {
+        return cachedPercentileNanos;
+    }
+
+    private long compute(long filled) {
+        long[] snapshot = new long[(int) filled];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = samples.get(i);
+        }
+        Arrays.sort(snapshot);
+        int index = (int) Math.min(snapshot.length - 1, Math.ceil(percentile / 100 * snapshot.length) - 1);
+        return snapshot[Math.max(0, index)];
+    }
+}
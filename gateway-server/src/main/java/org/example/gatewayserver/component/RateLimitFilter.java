@@ -0,0 +1,107 @@
+package org.example.gatewayserver.component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.gatewayserver.config.RateLimitProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничение скорости запросов без Redis: token bucket на пользователя в рамках маршрута
+ * и общий token bucket на маршрут. Пользователь берётся из JWT, для /auth - IP клиента.
+ */
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+    public static final int ORDER = JwtAuthenticationFilter.ORDER + 10;
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, TokenBucket> userBuckets;
+    private final Map<String, TokenBucket> routeBuckets = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.userBuckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxUserBuckets())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .build();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || route == null) {
+            return chain.filter(exchange);
+        }
+
+        String routeId = route.getId();
+        long now = System.nanoTime();
+
+        // Сначала корзина пользователя: отклонённый по своему лимиту пользователь
+        // не должен расходовать общий лимит маршрута
+        RateLimitProperties.Limit userLimit = properties.userLimit(routeId);
+        TokenBucket userBucket = userBuckets.get(routeId + '|' + resolveUser(exchange),
+                key -> new TokenBucket(userLimit.getCapacity(), userLimit.getRefillPerSecond()));
+        long userWaitNanos = userBucket.tryAcquire(now);
+        if (userWaitNanos > 0) {
+            return reject(exchange, routeId, "user", userWaitNanos);
+        }
+
+        RateLimitProperties.Limit routeLimit = properties.routeLimit(routeId);
+        if (routeLimit != null) {
+            TokenBucket routeBucket = routeBuckets.computeIfAbsent(routeId,
+                    id -> new TokenBucket(routeLimit.getCapacity(), routeLimit.getRefillPerSecond()));
+            long routeWaitNanos = routeBucket.tryAcquire(now);
+            if (routeWaitNanos > 0) {
+                // Запрос не пропущен - токен пользователя возвращается
+                userBucket.refund(now);
+                return reject(exchange, routeId, "route", routeWaitNanos);
+            }
+        }
+
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private String resolveUser(ServerWebExchange exchange) {
+        Claims claims = exchange.getAttribute(JwtAuthenticationFilter.CLAIMS_ATTR);
+        if (claims != null && claims.getSubject() != null) {
+            return claims.getSubject();
+        }
+
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        return remoteAddress != null ? remoteAddress.getHostString() : "unknown";
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, String routeId, String scope, long waitNanos) {
+        meterRegistry.counter("gateway.rate-limit.rejected", "route", routeId, "scope", scope)
+                .increment();
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return response.setComplete();
+    }
+}
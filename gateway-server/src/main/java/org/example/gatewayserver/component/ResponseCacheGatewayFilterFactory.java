@@ -0,0 +1,388 @@
+package org.example.gatewayserver.component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Getter;
+import lombok.Setter;
+import org.example.gatewayserver.config.ResponseCacheProperties;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Кэш GET-ответов в памяти шлюза, отдельный для каждого пользователя.
+ * Учитывает ETag и Cache-Control сервиса: свежая запись отдаётся без обращения к сервису
+ * (на If-None-Match сразу 304), устаревшая перепроверяется условным запросом.
+ * POST, PUT, PATCH и DELETE на тот же ресурс делают записи недействительными.
+ * <p>
+ * Сервисы помечают ответы {@code private, no-cache} - это указание клиенту и промежуточным кэшам.
+ * Кэш шлюза отдельный для каждого пользователя и сам сбрасывает записи при изменениях, поэтому
+ * хранит ответы по политике маршрута: no-store не сохраняется, max-age задаёт свежесть,
+ * иначе действует default-ttl. Клиенту ответ всегда уходит с {@code private}.
+ * <p>
+ * Включается на маршруте фильтром {@code - name: ResponseCache}.
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+    public static final int ORDER = RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER + 1;
+    /**
+     * Ответ отдан из кэша, сервис не вызывался.
+     */
+    public static final String CACHE_HIT_ATTR = ResponseCacheGatewayFilterFactory.class.getName() + ".hit";
+
+    private static final int ENTRY_OVERHEAD_BYTES = 512;
+    private static final List<String> NOT_STORED_HEADERS = List.of(
+            HttpHeaders.CONNECTION, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.SET_COOKIE);
+
+    private final ResponseCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, CachedResponse> cache;
+    // Ресурс -> номер последней модификации, см. CachedResponse.sequence
+    private final Cache<String, Long> modifications;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public ResponseCacheGatewayFilterFactory(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((String key, CachedResponse response) -> response.body().length + ENTRY_OVERHEAD_BYTES)
+                .expireAfterWrite(properties.getMaxAge())
+                .recordStats()
+                .build();
+        // Модификация старше maxAge уже не может сделать недействительной ни одну запись
+        this.modifications = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(properties.getMaxAge())
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.response-cache");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        List<PathPattern> paths = config.getPaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            Claims claims = exchange.getAttribute(JwtAuthenticationFilter.CLAIMS_ATTR);
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            if (!properties.isEnabled() || claims == null || claims.getSubject() == null || route == null) {
+                return chain.filter(exchange);
+            }
+
+            URI originalUri = originalUri(exchange);
+            String resource = route.getId() + '|' + stripTrailingSlash(originalUri.getRawPath());
+            HttpMethod method = exchange.getRequest().getMethod();
+
+            if (method == HttpMethod.POST || method == HttpMethod.PUT
+                    || method == HttpMethod.PATCH || method == HttpMethod.DELETE) {
+                // Второй раз - после ответа, на случай GET, прочитавшего старые данные во время изменения
+                markModified(resource);
+                return chain.filter(exchange).doFinally(signal -> markModified(resource));
+            }
+            if (method != HttpMethod.GET || !matches(paths, originalUri)) {
+                return chain.filter(exchange);
+            }
+
+            String key = resource + '|' + claims.getSubject() + '|' + originalUri.getRawQuery();
+            long requestSequence = sequence.get();
+            String ifNoneMatch = exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+
+            CachedResponse cached = cache.getIfPresent(key);
+            if (cached != null && isModifiedSince(resource, cached.sequence())) {
+                cache.invalidate(key);
+                cached = null;
+            }
+
+            if (cached != null && cached.isFresh(System.nanoTime())) {
+                count(route, "hit");
+                exchange.getAttributes().put(CACHE_HIT_ATTR, true);
+                if (etagMatches(ifNoneMatch, cached.etag())) {
+                    return writeNotModified(exchange.getResponse(), cached);
+                }
+                return writeCached(exchange.getResponse(), cached);
+            }
+
+            ServerWebExchange forwarded = exchange;
+            CachedResponse revalidating = null;
+            if (cached != null && cached.etag() != null) {
+                String etag = cached.etag();
+                revalidating = cached;
+                forwarded = exchange.mutate()
+                        .request(request -> request.headers(headers -> headers.set(HttpHeaders.IF_NONE_MATCH, etag)))
+                        .build();
+            }
+            count(route, revalidating != null ? "revalidate" : "miss");
+
+            CachingResponse response = new CachingResponse(exchange.getResponse(), config, resource, key,
+                    requestSequence, revalidating, ifNoneMatch);
+            return chain.filter(forwarded.mutate().response(response).build());
+        }, ORDER);
+    }
+
+    private void markModified(String resource) {
+        modifications.put(resource, sequence.incrementAndGet());
+    }
+
+    private boolean isModifiedSince(String resource, long requestSequence) {
+        Long modified = modifications.getIfPresent(resource);
+        return modified != null && modified > requestSequence;
+    }
+
+    private void store(String resource, String key, CachedResponse response) {
+        if (!isModifiedSince(resource, response.sequence())) {
+            cache.put(key, response);
+        }
+    }
+
+    private void count(Route route, String result) {
+        meterRegistry.counter("gateway.response-cache.requests", "route", route.getId(), "result", result)
+                .increment();
+    }
+
+    private Mono<Void> writeCached(ServerHttpResponse response, CachedResponse cached) {
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().putAll(cached.headers());
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private Mono<Void> writeNotModified(ServerHttpResponse response, CachedResponse cached) {
+        response.setStatusCode(HttpStatus.NOT_MODIFIED);
+        response.getHeaders().setETag(cached.etag());
+        copyIfPresent(cached.headers(), response.getHeaders(), HttpHeaders.CACHE_CONTROL);
+        return response.setComplete();
+    }
+
+    /**
+     * Время свежести записи в кэше шлюза; null - ответ нельзя сохранять.
+     * private и no-cache относятся к клиенту, для шлюза действует default-ttl маршрута.
+     */
+    private Duration freshness(HttpHeaders headers, Config config) {
+        Duration freshness = config.getDefaultTtl();
+        for (String value : headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)) {
+            for (String directive : value.split(",")) {
+                String name = directive.trim().toLowerCase();
+                if (name.equals("no-store")) {
+                    return null;
+                } else if (name.startsWith("max-age=") || name.startsWith("s-maxage=")) {
+                    try {
+                        freshness = Duration.ofSeconds(Long.parseLong(name.substring(name.indexOf('=') + 1)));
+                    } catch (NumberFormatException e) {
+                        freshness = Duration.ZERO;
+                    }
+                }
+            }
+        }
+        return freshness.compareTo(properties.getMaxAge()) > 0 ? properties.getMaxAge() : freshness;
+    }
+
+    private static URI originalUri(ServerWebExchange exchange) {
+        Set<URI> originalUris = exchange.getAttributeOrDefault(
+                ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR, Collections.emptySet());
+        return originalUris.isEmpty() ? exchange.getRequest().getURI() : originalUris.iterator().next();
+    }
+
+    private static boolean matches(List<PathPattern> paths, URI uri) {
+        if (paths.isEmpty()) {
+            return true;
+        }
+        PathContainer path = PathContainer.parsePath(uri.getRawPath());
+        return paths.stream().anyMatch(pattern -> pattern.matches(path));
+    }
+
+    private static String stripTrailingSlash(String path) {
+        return path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String normalizedEtag = weakless(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || weakless(trimmed).equals(normalizedEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String weakless(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static void copyIfPresent(HttpHeaders from, HttpHeaders to, String name) {
+        List<String> values = from.get(name);
+        if (values != null) {
+            to.put(name, values);
+        }
+    }
+
+    private static HttpHeaders storedHeaders(HttpHeaders headers) {
+        HttpHeaders copy = new HttpHeaders();
+        copy.putAll(headers);
+        NOT_STORED_HEADERS.forEach(copy::remove);
+        return HttpHeaders.readOnlyHttpHeaders(copy);
+    }
+
+    /**
+     * Ответ на кэшируемом маршруте личный: public заменяется на private,
+     * остальные директивы сервиса (no-cache, max-age) сохраняются.
+     */
+    private static void makePrivate(HttpHeaders headers) {
+        List<String> directives = new ArrayList<>();
+        directives.add("private");
+        for (String value : headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)) {
+            for (String directive : value.split(",")) {
+                String trimmed = directive.trim();
+                String name = trimmed.toLowerCase();
+                if (!trimmed.isEmpty() && !name.equals("private") && !name.equals("public")) {
+                    directives.add(trimmed);
+                }
+            }
+        }
+        headers.setCacheControl(String.join(", ", directives));
+    }
+
+    /**
+     * Перехватывает тело ответа сервиса: сохраняет его в кэш, а на 304 при перепроверке
+     * продлевает запись и отдаёт клиенту сохранённый ответ.
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+        private final Config config;
+        private final String resource;
+        private final String key;
+        private final long requestSequence;
+        private final CachedResponse revalidating;
+        private final String clientIfNoneMatch;
+
+        CachingResponse(ServerHttpResponse delegate, Config config, String resource, String key,
+                        long requestSequence, CachedResponse revalidating, String clientIfNoneMatch) {
+            super(delegate);
+            this.config = config;
+            this.resource = resource;
+            this.key = key;
+            this.requestSequence = requestSequence;
+            this.revalidating = revalidating;
+            this.clientIfNoneMatch = clientIfNoneMatch;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            makePrivate(getHeaders());
+            HttpStatusCode status = getStatusCode();
+            if (status != null && status.value() == HttpStatus.NOT_MODIFIED.value() && revalidating != null) {
+                return Flux.from(body)
+                        .doOnNext(DataBufferUtils::release)
+                        .then(Mono.defer(this::writeRevalidated));
+            }
+
+            Duration freshness = freshness(getHeaders(), config);
+            long contentLength = getHeaders().getContentLength();
+            if (status == null || status.value() != HttpStatus.OK.value() || freshness == null || contentLength < 0
+                    || contentLength > properties.getMaxEntrySize().toBytes()
+                    || (getHeaders().getETag() == null && freshness.isZero())) {
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(body)
+                    .flatMap(buffer -> {
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        DataBufferUtils.release(buffer);
+
+                        CachedResponse cached = new CachedResponse(storedHeaders(getHeaders()), bytes,
+                                getHeaders().getETag(), System.nanoTime() + freshness.toNanos(), requestSequence);
+                        store(resource, key, cached);
+
+                        if (etagMatches(clientIfNoneMatch, cached.etag())) {
+                            getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+                            getHeaders().remove(HttpHeaders.CONTENT_TYPE);
+                            setStatusCode(HttpStatus.NOT_MODIFIED);
+                            return getDelegate().setComplete();
+                        }
+                        return getDelegate().writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+        }
+
+        private Mono<Void> writeRevalidated() {
+            Duration freshness = freshness(getHeaders(), config);
+            CachedResponse refreshed = revalidating.refreshed(
+                    freshness != null ? System.nanoTime() + freshness.toNanos() : System.nanoTime(), requestSequence);
+            if (freshness != null) {
+                store(resource, key, refreshed);
+            }
+
+            if (etagMatches(clientIfNoneMatch, refreshed.etag())) {
+                return getDelegate().setComplete();
+            }
+            getHeaders().clear();
+            setStatusCode(HttpStatus.OK);
+            getHeaders().putAll(refreshed.headers());
+            return getDelegate().writeWith(Mono.just(bufferFactory().wrap(refreshed.body())));
+        }
+    }
+
+    /**
+     * @param freshUntilNanos до какого момента запись отдаётся без обращения к сервису
+     * @param sequence        значение счётчика модификаций на момент запроса к сервису;
+     *                        запись недействительна, если ресурс менялся позже
+     */
+    private record CachedResponse(HttpHeaders headers, byte[] body, String etag,
+                                  long freshUntilNanos, long sequence) {
+        boolean isFresh(long nowNanos) {
+            return nowNanos - freshUntilNanos < 0;
+        }
+
+        CachedResponse refreshed(long freshUntilNanos, long sequence) {
+            return new CachedResponse(headers, body, etag, freshUntilNanos, sequence);
+        }
+    }
+
+    @Setter
+    @Getter
+    public static class Config {
+        /**
+         * Пути, ответы на которые кэшируются; пусто - все GET-запросы маршрута.
+         */
+        private List<String> paths = new ArrayList<>();
+        /**
+         * Время свежести, если сервис не прислал max-age. После него запись перепроверяется по ETag.
+         */
+        private Duration defaultTtl = Duration.ZERO;
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.gatewayserver.component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Бюджет повторных попыток: каждый запрос пополняет бюджет на {@code ratio} попытки,
+ * каждая дополнительная попытка тратит одну. Во время инцидента бюджет быстро
+ * заканчивается, и дополнительные запросы не умножают нагрузку на сервис.
+ */
+public class RetryBudget {
+    private static final long SCALE = 1000;
+
+    private final long depositPerRequest;
+    private final long maxBalance;
+    private final AtomicLong balance;
+
+    public RetryBudget(double ratio, int maxTokens) {
+        this.depositPerRequest = (long) (ratio * SCALE);
+        this.maxBalance = maxTokens * SCALE;
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    public void deposit() {
+        balance.accumulateAndGet(depositPerRequest, (current, deposit) -> Math.min(maxBalance, current + deposit));
+    }
+
+    public boolean tryWithdraw() {
+        while (true) {
+            long current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package org.example.gatewayserver.component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Реплика фильтра Блума отозванных токенов из auth-service. На горячем пути только
+ * проверка битов {@link #mightBeRevoked(String)}; положительный ответ уточняется
+ * запросом в auth-service. Пока первый снимок фильтра не получен, уточняется каждый токен.
+ */
+@Slf4j
+@Component
+public class RevokedTokens {
+    private final WebClient webClient;
+    private final Duration syncInterval;
+    private final Duration timeout;
+    // Только отозванные jti: отзыв необратим, а "не отозван" может устареть через секунду.
+    // jti живёт не дольше токена - хватает короткого TTL
+    private final Cache<String, Boolean> exactChecks;
+    private final Counter filterPositives;
+    // null - снимок ещё не получен
+    private volatile BloomFilter filter;
+    private volatile String eTag;
+    private Disposable sync;
+
+    public RevokedTokens(WebClient.Builder webClientBuilder,
+                         LoadBalancedExchangeFilterFunction loadBalancedExchangeFilterFunction,
+                         MeterRegistry meterRegistry,
+                         @Value("${gateway.revocation.sync-interval:5s}") Duration syncInterval,
+                         @Value("${gateway.revocation.timeout:500ms}") Duration timeout,
+                         @Value("${gateway.revocation.exact-check-ttl:1m}") Duration exactCheckTtl) {
+        this.webClient = webClientBuilder.clone()
+                .filter(loadBalancedExchangeFilterFunction)
+                .build();
+        this.syncInterval = syncInterval;
+        this.timeout = timeout;
+        this.exactChecks = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(exactCheckTtl)
+                .build();
+        this.filterPositives = Counter.builder("gateway.revocation.filter.positive")
+                .register(meterRegistry);
+    }
+
+    public boolean mightBeRevoked(String jti) {
+        BloomFilter current = filter;
+        return jti != null && (current == null || current.mightContain(jti));
+    }
+
+    /**
+     * Точная проверка для положительного ответа фильтра. Если auth-service недоступен,
+     * токен считается отозванным: лучше отказать, чем пропустить отозванный.
+     */
+    public Mono<Boolean> isRevoked(String jti) {
+        filterPositives.increment();
+        if (exactChecks.getIfPresent(jti) != null) {
+            return Mono.just(true);
+        }
+        return webClient.get()
+                .uri("http://auth-service/auth/revocations/{jti}", jti)
+                .retrieve()
+                .bodyToMono(Boolean.class)
+                .timeout(timeout)
+                .doOnNext(revoked -> {
+                    if (revoked) {
+                        exactChecks.put(jti, true);
+                    }
+                })
+                .onErrorReturn(true)
+                .defaultIfEmpty(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startSync() {
+        sync = Flux.interval(Duration.ZERO, syncInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh()
+                        .onErrorResume(e -> {
+                            log.warn("Revocation filter sync failed: {}", e.getMessage());
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stopSync() {
+        if (sync != null) {
+            sync.dispose();
+        }
+    }
+
+    private Mono<Void> refresh() {
+        return webClient.get()
+                .uri("http://auth-service/auth/revocations/filter")
+                .headers(headers -> {
+                    if (eTag != null) {
+                        headers.setIfNoneMatch(eTag);
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (response.statusCode() == HttpStatus.NOT_MODIFIED) {
+                        return response.releaseBody();
+                    }
+                    if (!response.statusCode().is2xxSuccessful()) {
+                        return response.createError();
+                    }
+                    String newETag = response.headers().asHttpHeaders().getETag();
+                    return response.bodyToMono(FilterSnapshot.class)
+                            .doOnNext(snapshot -> {
+                                filter = snapshot.toFilter();
+                                eTag = newETag;
+                            })
+                            .then();
+                })
+                .timeout(timeout);
+    }
+
+    record FilterSnapshot(long version, int numHashes, String bits) {
+        BloomFilter toFilter() {
+            ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(bits));
+            long[] words = new long[buffer.remaining() / Long.BYTES];
+            buffer.asLongBuffer().get(words);
+            return BloomFilter.fromWords(words, numHashes);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.gatewayserver.component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.RequiredArgsConstructor;
+import org.example.gatewayserver.config.RouteLatencyProperties;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code /actuator/routelatency}: перцентили задержки по маршрутам за скользящее окно
+ * {@code gateway.route-latency.window}, в миллисекундах.
+ */
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "routelatency")
+public class RouteLatencyEndpoint {
+    private final MeterRegistry meterRegistry;
+    private final RouteLatencyProperties properties;
+
+    @ReadOperation
+    public Map<String, Object> routes() {
+        return summary(null);
+    }
+
+    @ReadOperation
+    public Map<String, Object> route(@Selector String routeId) {
+        return summary(routeId);
+    }
+
+    private Map<String, Object> summary(String routeId) {
+        Map<String, List<Map<String, Object>>> routes = new TreeMap<>();
+        for (Timer timer : meterRegistry.find(RouteLatencyFilter.METRIC_NAME).timers()) {
+            String route = timer.getId().getTag("route");
+            if (routeId != null && !routeId.equals(route)) {
+                continue;
+            }
+            routes.computeIfAbsent(route, k -> new ArrayList<>()).add(series(timer));
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("window", properties.getWindow().toString());
+        result.put("routes", routes);
+        return result;
+    }
+
+    private static Map<String, Object> series(Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        Map<String, Object> series = new LinkedHashMap<>();
+        series.put("method", timer.getId().getTag("method"));
+        series.put("outcome", timer.getId().getTag("outcome"));
+        series.put("tier", timer.getId().getTag("tier"));
+        series.put("count", snapshot.count());
+        series.put("max", snapshot.max(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            series.put(label(percentile.percentile()), percentile.value(TimeUnit.MILLISECONDS));
+        }
+        return series;
+    }
+
+    // 0.5 -> p50, 0.999 -> p999
+    private static String label(double percentile) {
+        String digits = String.valueOf(percentile * 100).replace(".", "");
+        return "p" + (digits.endsWith("0") && digits.length() > 2 ? digits.substring(0, digits.length() - 1) : digits);
+    }
+}
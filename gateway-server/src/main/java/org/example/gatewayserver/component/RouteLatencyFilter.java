@@ -0,0 +1,97 @@
+package org.example.gatewayserver.component;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.gatewayserver.config.RouteLatencyProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время обработки запроса шлюзом по маршрутам. Таймер с клиентскими перцентилями
+ * (HdrHistogram в Micrometer) по скользящему окну и SLO-бакетами, теги:
+ * маршрут, метод, класс статуса и роль пользователя.
+ * Стоит раньше JWT и ограничений, чтобы отказы тоже попадали в статистику.
+ */
+@Component
+public class RouteLatencyFilter implements GlobalFilter, Ordered {
+    public static final String METRIC_NAME = "gateway.route.latency";
+    public static final int ORDER = JwtAuthenticationFilter.ORDER - 10;
+
+    private final RouteLatencyProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final double[] percentiles;
+    private final Duration[] slo;
+
+    public RouteLatencyFilter(RouteLatencyProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.percentiles = properties.getPercentiles().stream().mapToDouble(Double::doubleValue).toArray();
+        this.slo = properties.getSlo().toArray(Duration[]::new);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || route == null) {
+            return chain.filter(exchange);
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> timer(route.getId(), exchange.getRequest().getMethod().name(),
+                        outcome(exchange, signal), tier(exchange))
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private Timer timer(String routeId, String method, String outcome, String tier) {
+        String key = routeId + '|' + method + '|' + outcome + '|' + tier;
+        return timers.computeIfAbsent(key, k -> Timer.builder(METRIC_NAME)
+                .tag("route", routeId)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .tag("tier", tier)
+                .publishPercentiles(percentiles)
+                .percentilePrecision(2)
+                .serviceLevelObjectives(slo)
+                .distributionStatisticExpiry(properties.getWindow())
+                .distributionStatisticBufferLength(properties.getBufferLength())
+                .register(meterRegistry));
+    }
+
+    private static String outcome(ServerWebExchange exchange, SignalType signal) {
+        if (signal == SignalType.CANCEL) {
+            return "CANCELLED";
+        }
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (status == null) {
+            return signal == SignalType.ON_ERROR ? "ERROR" : "UNKNOWN";
+        }
+        return (status.value() / 100) + "xx";
+    }
+
+    private static String tier(ServerWebExchange exchange) {
+        Claims claims = exchange.getAttribute(JwtAuthenticationFilter.CLAIMS_ATTR);
+        String role = claims != null ? claims.get("role", String.class) : null;
+        return role != null ? role : "anonymous";
+    }
+}
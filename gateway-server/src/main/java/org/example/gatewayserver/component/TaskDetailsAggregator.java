@@ -0,0 +1,103 @@
+package org.example.gatewayserver.component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Собирает карточку задачи из трёх сервисов за один запрос клиента.
+ * Задача и вложения запрашиваются параллельно, владелец - после задачи, так как его id
+ * есть только в ней. Таймаут действует на каждое обращение, поэтому худший случай -
+ * два таймаута подряд (задача, затем владелец). Недоступная часть
+ * не ломает ответ: вместо неё возвращается маркер ошибки в поле {@code errors}.
+ */
+@Component
+public class TaskDetailsAggregator {
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+
+    public TaskDetailsAggregator(WebClient.Builder webClientBuilder,
+                                 LoadBalancedExchangeFilterFunction loadBalancedExchangeFilterFunction,
+                                 ObjectMapper objectMapper,
+                                 @Value("${gateway.aggregation.timeout:1s}") Duration timeout) {
+        this.webClient = webClientBuilder.clone()
+                .filter(loadBalancedExchangeFilterFunction)
+                .build();
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return тело ответа или пустой Mono, если задача не найдена
+     */
+    public Mono<ObjectNode> aggregate(Long taskId, Consumer<HttpHeaders> headers) {
+        Mono<Part> task = fetch("task", "http://task-service/tasks/{taskId}", headers, taskId).cache();
+        Mono<Part> attachments = fetch("attachments", "http://file-service/files?taskId={taskId}", headers, taskId);
+        Mono<Part> owner = task.flatMap(part -> {
+            JsonNode userId = part.body() != null ? part.body().get("userId") : null;
+            if (userId == null || userId.isNull()) {
+                return Mono.just(Part.failed("owner", HttpStatus.FAILED_DEPENDENCY.value(), "task unavailable"));
+            }
+            return fetch("owner", "http://user-service/users/{userId}", headers, userId.asText());
+        });
+
+        return Mono.zip(task, attachments, owner)
+                .filter(parts -> parts.getT1().status() != HttpStatus.NOT_FOUND.value())
+                .map(parts -> {
+                    ObjectNode result = objectMapper.createObjectNode();
+                    ObjectNode errors = objectMapper.createObjectNode();
+                    for (Part part : new Part[]{parts.getT1(), parts.getT2(), parts.getT3()}) {
+                        result.set(part.name(), part.body());
+                        if (part.error() != null) {
+                            errors.set(part.name(), objectMapper.createObjectNode()
+                                    .put("status", part.status())
+                                    .put("error", part.error()));
+                        }
+                    }
+                    if (!errors.isEmpty()) {
+                        result.set("errors", errors);
+                    }
+                    return result;
+                });
+    }
+
+    private Mono<Part> fetch(String name, String uri, Consumer<HttpHeaders> headers, Object... uriVariables) {
+        return webClient.get()
+                .uri(uri, uriVariables)
+                .headers(headers)
+                .exchangeToMono(response -> {
+                    if (response.statusCode().is2xxSuccessful()) {
+                        return response.bodyToMono(JsonNode.class)
+                                .map(body -> Part.ok(name, body));
+                    }
+                    return response.releaseBody()
+                            .thenReturn(Part.failed(name, response.statusCode().value(), "upstream error"));
+                })
+                .timeout(timeout)
+                .onErrorResume(TimeoutException.class,
+                        e -> Mono.just(Part.failed(name, HttpStatus.GATEWAY_TIMEOUT.value(), "timeout")))
+                .onErrorResume(e -> Mono.just(Part.failed(name, HttpStatus.BAD_GATEWAY.value(), "unavailable")));
+    }
+
+    private record Part(String name, JsonNode body, int status, String error) {
+        static Part ok(String name, JsonNode body) {
+            return new Part(name, body, HttpStatus.OK.value(), null);
+        }
+
+        static Part failed(String name, int status, String error) {
+            return new Part(name, null, status, error);
+        }
+    }
+}
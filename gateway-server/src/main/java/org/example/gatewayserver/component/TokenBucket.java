@@ -0,0 +1,58 @@
+package org.example.gatewayserver.component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Неблокирующий token bucket в форме GCRA: всё состояние - одно "теоретическое время прихода"
+ * в {@link AtomicLong}, поэтому захват токена - это один CAS без блокировок.
+ */
+public class TokenBucket {
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrivalNanos = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucket(int capacity, double refillPerSecond) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity and refillPerSecond must be positive");
+        }
+        this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+        this.burstNanos = emissionIntervalNanos * capacity;
+    }
+
+    /**
+     * Пытается взять один токен.
+     *
+     * @return 0, если токен получен, иначе сколько наносекунд ждать до следующего токена
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrivalNanos.get();
+            long base = current == Long.MIN_VALUE ? nowNanos : Math.max(current, nowNanos);
+            long next = base + emissionIntervalNanos;
+            long waitNanos = next - nowNanos - burstNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Возвращает токен, взятый {@link #tryAcquire}, если запрос всё же не был пропущен.
+     * Корзина не наполняется сверх capacity.
+     */
+    public void refund(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrivalNanos.get();
+            if (current == Long.MIN_VALUE || current <= nowNanos) {
+                return;
+            }
+            long previous = Math.max(current - emissionIntervalNanos, nowNanos);
+            if (theoreticalArrivalNanos.compareAndSet(current, previous)) {
+                return;
+            }
+        }
+    }
+}
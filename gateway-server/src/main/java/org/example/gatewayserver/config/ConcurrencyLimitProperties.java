@@ -0,0 +1,26 @@
+package org.example.gatewayserver.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "gateway.concurrency-limit")
+public class ConcurrencyLimitProperties {
+    private boolean enabled = true;
+
+    private int initialLimit = 50;
+    private int minLimit = 5;
+    private int maxLimit = 500;
+
+    // Ответ медленнее порога считается признаком перегрузки сервиса
+    private Duration latencyThreshold = Duration.ofMillis(500);
+
+    // Во сколько раз уменьшается лимит при перегрузке (multiplicative decrease)
+    private double backoffRatio = 0.9;
+}
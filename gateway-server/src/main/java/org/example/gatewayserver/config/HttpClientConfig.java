@@ -0,0 +1,30 @@
+package org.example.gatewayserver.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.reactive.function.client.ReactorNettyHttpClientMapper;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+
+/**
+ * h2c между шлюзом и сервисами: запросы мультиплексируются в одном соединении
+ * вместо пула HTTP/1.1 соединений. Если сервис не поддерживает HTTP/2,
+ * соединение остаётся на HTTP/1.1 после неудачного Upgrade.
+ */
+@Configuration
+@ConditionalOnProperty(name = "gateway.httpclient.h2c", havingValue = "true")
+public class HttpClientConfig {
+
+    // Клиент маршрутов шлюза
+    @Bean
+    public HttpClientCustomizer h2cHttpClientCustomizer() {
+        return httpClient -> httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+    }
+
+    // Клиент WebClient.Builder: хеджирование и агрегация
+    @Bean
+    public ReactorNettyHttpClientMapper h2cReactorNettyHttpClientMapper() {
+        return httpClient -> httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+    }
+}
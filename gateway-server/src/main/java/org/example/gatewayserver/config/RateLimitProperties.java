@@ -0,0 +1,66 @@
+package org.example.gatewayserver.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+
+    // Максимальное число отслеживаемых бакетов пользователей, лишние вытесняются
+    private long maxUserBuckets = 1_000_000;
+
+    // Бакет, к которому не обращались дольше этого времени, удаляется
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    private Limit defaultUserLimit = new Limit(40, 20);
+
+    // Лимиты по id маршрута: auth-service, task-service и т.д.
+    private Map<String, RouteLimit> routes = new HashMap<>();
+
+    public Limit userLimit(String routeId) {
+        RouteLimit routeLimit = routes.get(routeId);
+        return routeLimit != null && routeLimit.getUserLimit() != null
+                ? routeLimit.getUserLimit()
+                : defaultUserLimit;
+    }
+
+    public Limit routeLimit(String routeId) {
+        RouteLimit routeLimit = routes.get(routeId);
+        return routeLimit != null ? routeLimit.getRouteLimit() : null;
+    }
+
+    @Setter
+    @Getter
+    public static class RouteLimit {
+        // Лимит на одного пользователя в рамках маршрута
+        private Limit userLimit;
+
+        // Общий лимит маршрута для всех пользователей
+        private Limit routeLimit;
+    }
+
+    @Setter
+    @Getter
+    public static class Limit {
+        private int capacity;
+        private double refillPerSecond;
+
+        public Limit() {
+        }
+
+        public Limit(int capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.gatewayserver.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+    private boolean enabled = true;
+
+    // Общий объём тел ответов в кэше
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    // Ответы больше этого размера не кэшируются
+    private DataSize maxEntrySize = DataSize.ofKilobytes(256);
+
+    // Верхняя граница жизни записи независимо от заголовков сервиса
+    private Duration maxAge = Duration.ofMinutes(10);
+}
@@ -0,0 +1,29 @@
+package org.example.gatewayserver.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "gateway.route-latency")
+public class RouteLatencyProperties {
+    private boolean enabled = true;
+
+    private List<Double> percentiles = new ArrayList<>(List.of(0.5, 0.95, 0.99, 0.999));
+
+    // Границы SLO-бакетов гистограммы
+    private List<Duration> slo = new ArrayList<>(List.of(
+            Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250),
+            Duration.ofMillis(500), Duration.ofSeconds(1)));
+
+    // Перцентили считаются по скользящему окну: window, разбитое на bufferLength частей
+    private Duration window = Duration.ofMinutes(1);
+    private int bufferLength = 3;
+}
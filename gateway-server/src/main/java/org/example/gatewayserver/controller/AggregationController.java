@@ -0,0 +1,51 @@
+package org.example.gatewayserver.controller;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import org.example.gatewayserver.component.AccessTokenVerifier;
+import org.example.gatewayserver.component.GatewayIdentitySigner;
+import org.example.gatewayserver.component.TaskDetailsAggregator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Эндпоинты, которые собирают ответ из нескольких сервисов.
+ * Глобальные фильтры шлюза к контроллерам не применяются, поэтому токен проверяется здесь
+ * тем же {@link AccessTokenVerifier}, что и в JwtAuthenticationFilter.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/aggregate")
+public class AggregationController {
+    private final AccessTokenVerifier accessTokenVerifier;
+    private final GatewayIdentitySigner gatewayIdentitySigner;
+    private final TaskDetailsAggregator taskDetailsAggregator;
+
+    @GetMapping("/tasks/{taskId}")
+    public Mono<ResponseEntity<ObjectNode>> getTaskDetails(
+            @PathVariable Long taskId,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authHeader) {
+        return accessTokenVerifier.verify(authHeader)
+                .flatMap(claims -> aggregate(taskId, authHeader, claims))
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+    }
+
+    private Mono<ResponseEntity<ObjectNode>> aggregate(Long taskId, String authHeader, Claims claims) {
+        return taskDetailsAggregator.aggregate(taskId, headers -> {
+                    headers.set(HttpHeaders.AUTHORIZATION, authHeader);
+                    if (gatewayIdentitySigner.isEnabled()) {
+                        gatewayIdentitySigner.addIdentity(headers, claims);
+                    }
+                })
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.gatewayserver.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Статистика по экземплярам сервиса: EWMA времени ответа и число запросов в полёте.
+ * Давно не обновлявшаяся EWMA затухает, чтобы медленный когда-то экземпляр снова получил трафик.
+ */
+public class InstanceLatencyStats {
+    private static final double ALPHA = 0.3;
+
+    private final LongSupplier clock;
+    private final long decayHalfLifeNanos;
+    private final long errorPenaltyNanos;
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    public InstanceLatencyStats() {
+        this(System::nanoTime, Duration.ofSeconds(10), Duration.ofSeconds(1));
+    }
+
+    public InstanceLatencyStats(LongSupplier clock, Duration decayHalfLife, Duration errorPenalty) {
+        this.clock = clock;
+        this.decayHalfLifeNanos = decayHalfLife.toNanos();
+        this.errorPenaltyNanos = errorPenalty.toNanos();
+    }
+
+    public void onStart(ServiceInstance instance) {
+        stats(instance).inFlight.incrementAndGet();
+    }
+
+    public void onComplete(ServiceInstance instance, long latencyNanos, boolean failed) {
+        Stats instanceStats = stats(instance);
+        instanceStats.inFlight.decrementAndGet();
+        if (latencyNanos >= 0) {
+            instanceStats.record(failed ? Math.max(latencyNanos, errorPenaltyNanos) : latencyNanos, clock.getAsLong());
+        }
+    }
+
+    /**
+     * Оценка стоимости запроса к экземпляру: ожидаемая задержка, умноженная на очередь.
+     * Для экземпляра без замеров берётся средняя задержка по остальным.
+     */
+    public double score(ServiceInstance instance) {
+        Stats instanceStats = stats(instance);
+        double latency = instanceStats.sampled ? decayed(instanceStats) : averageLatency();
+        return Math.max(latency, 1) * (instanceStats.inFlight.get() + 1);
+    }
+
+    private double decayed(Stats instanceStats) {
+        long idleNanos = clock.getAsLong() - instanceStats.lastUpdateNanos;
+        if (idleNanos <= 0) {
+            return instanceStats.ewmaNanos;
+        }
+        return instanceStats.ewmaNanos * Math.pow(0.5, (double) idleNanos / decayHalfLifeNanos);
+    }
+
+    private double averageLatency() {
+        double sum = 0;
+        int count = 0;
+        for (Stats instanceStats : stats.values()) {
+            if (instanceStats.sampled) {
+                sum += decayed(instanceStats);
+                count++;
+            }
+        }
+        return count > 0 ? sum / count : 1;
+    }
+
+    private Stats stats(ServiceInstance instance) {
+        return stats.computeIfAbsent(instance.getHost() + ':' + instance.getPort(), key -> new Stats());
+    }
+
+    private static class Stats {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile double ewmaNanos;
+        private volatile long lastUpdateNanos;
+        private volatile boolean sampled;
+
+        private synchronized void record(long latencyNanos, long now) {
+            ewmaNanos = sampled ? ALPHA * latencyNanos + (1 - ALPHA) * ewmaNanos : latencyNanos;
+            lastUpdateNanos = now;
+            sampled = true;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.gatewayserver.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Балансировщик "power of two choices": из двух случайных экземпляров выбирается тот,
+ * у которого меньше EWMA задержки с учётом запросов в полёте.
+ * Медленный экземпляр (например, в GC паузе) быстро перестаёт получать свою долю трафика.
+ */
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+    private final InstanceLatencyStats stats;
+    private final Supplier<Random> random;
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                    InstanceLatencyStats stats) {
+        this(serviceInstanceListSupplierProvider, stats, ThreadLocalRandom::current);
+    }
+
+    LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                             InstanceLatencyStats stats,
+                             Supplier<Random> random) {
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.stats = stats;
+        this.random = random;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider
+                .getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request)
+                .next()
+                .map(instances -> processInstanceResponse(supplier, instances));
+    }
+
+    ServiceInstance select(List<ServiceInstance> instances) {
+        if (instances.size() == 1) {
+            return instances.get(0);
+        }
+
+        Random rnd = random.get();
+        int first = rnd.nextInt(instances.size());
+        int second = rnd.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        return stats.score(a) <= stats.score(b) ? a : b;
+    }
+
+    private Response<ServiceInstance> processInstanceResponse(ServiceInstanceListSupplier supplier,
+                                                              List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            return new EmptyResponse();
+        }
+
+        ServiceInstance instance = select(instances);
+        if (supplier instanceof SelectedInstanceCallback callback) {
+            callback.selectedServiceInstance(instance);
+        }
+        return new DefaultResponse(instance);
+    }
+}
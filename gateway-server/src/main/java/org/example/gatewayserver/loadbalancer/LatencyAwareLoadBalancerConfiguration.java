@@ -0,0 +1,35 @@
+package org.example.gatewayserver.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Конфигурация дочернего контекста LoadBalancer для каждого сервиса.
+ * Намеренно без {@code @Configuration}, подключается через {@code @LoadBalancerClients}.
+ */
+public class LatencyAwareLoadBalancerConfiguration {
+
+    @Bean
+    public InstanceLatencyStats instanceLatencyStats() {
+        return new InstanceLatencyStats();
+    }
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> latencyAwareLoadBalancer(Environment environment,
+                                                                         LoadBalancerClientFactory loadBalancerClientFactory,
+                                                                         InstanceLatencyStats instanceLatencyStats) {
+        String name = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new LatencyAwareLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(name, ServiceInstanceListSupplier.class),
+                instanceLatencyStats);
+    }
+
+    @Bean
+    public LatencyAwareLoadBalancerLifecycle latencyAwareLoadBalancerLifecycle(InstanceLatencyStats instanceLatencyStats) {
+        return new LatencyAwareLoadBalancerLifecycle(instanceLatencyStats);
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.gatewayserver;
+
+import org.example.gatewayserver.component.BloomFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BloomFilterTest {
+    private static final int REVOKED = 10_000;
+
+    @Test
+    @DisplayName("mightContain_ShouldKeepFalsePositivesNearRate_WhenJtisAdded")
+    public void falsePositiveRateTest() {
+        BloomFilter filter = BloomFilter.create(REVOKED, 0.01);
+        List<String> revoked = IntStream.range(0, REVOKED)
+                .mapToObj(i -> UUID.randomUUID().toString())
+                .toList();
+        revoked.forEach(filter::put);
+
+        assertThat(revoked).allMatch(filter::mightContain);
+
+        long falsePositives = IntStream.range(0, 100_000)
+                .mapToObj(i -> UUID.randomUUID().toString())
+                .filter(filter::mightContain)
+                .count();
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+    }
+
+    @Test
+    @DisplayName("fromWords_ShouldAnswerLikeOriginal_WhenRebuiltFromWords")
+    public void wordsRoundTripTest() {
+        BloomFilter filter = BloomFilter.create(1_000, 0.01);
+        List<String> revoked = IntStream.range(0, 1_000)
+                .mapToObj(i -> UUID.randomUUID().toString())
+                .toList();
+        revoked.forEach(filter::put);
+
+        BloomFilter replica = BloomFilter.fromWords(filter.toWords(), filter.getNumHashes());
+
+        assertThat(revoked).allMatch(replica::mightContain);
+        IntStream.range(0, 1_000)
+                .mapToObj(i -> UUID.randomUUID().toString())
+                .forEach(jti -> assertThat(replica.mightContain(jti)).isEqualTo(filter.mightContain(jti)));
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.gatewayserver;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Сжатие ответов шлюза на его настоящих маршрутах: для каждого пути и протокола клиента
+ * (HTTP/1.1 и h2c) сравниваются identity, gzip и br - байты на проводе и p99 задержки.
+ * <p>
+ * Не тест: запускается через main против поднятого окружения (docker compose), например
+ * <pre>
+ * -Dbenchmark.gateway-url=http://localhost:8080 -Dbenchmark.token=&lt;access token&gt;
+ * -Dbenchmark.paths=/tasks?limit=100,/users/1,/files?taskId=1
+ * </pre>
+ * Влияние h2c между шлюзом и сервисами - два запуска с gateway.httpclient.h2c=true и false.
+ */
+public class CompressionBenchmark {
+    private static final Logger log = LoggerFactory.getLogger(CompressionBenchmark.class);
+    private static final List<String> ENCODINGS = List.of("identity", "gzip", "br");
+
+    private final HttpClient client;
+    private final int warmup;
+    private final int requests;
+
+    CompressionBenchmark(HttpClient client, int warmup, int requests) {
+        this.client = client;
+        this.warmup = warmup;
+        this.requests = requests;
+    }
+
+    public static void main(String[] args) {
+        String gatewayUrl = System.getProperty("benchmark.gateway-url", "http://localhost:8080");
+        String token = System.getProperty("benchmark.token", System.getenv("BENCHMARK_TOKEN"));
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("Access token is required: -Dbenchmark.token or BENCHMARK_TOKEN");
+        }
+        List<String> paths = Arrays.stream(System.getProperty("benchmark.paths", "/tasks?limit=100,/users/1")
+                        .split(","))
+                .map(String::trim)
+                .toList();
+        int warmup = Integer.getInteger("benchmark.warmup", 200);
+        int requests = Integer.getInteger("benchmark.requests", 1000);
+
+        for (HttpProtocol protocol : List.of(HttpProtocol.HTTP11, HttpProtocol.H2C)) {
+            // Без compress(true) тело не распаковывается - считаются байты на проводе
+            HttpClient client = HttpClient.create()
+                    .baseUrl(gatewayUrl)
+                    .protocol(protocol)
+                    .responseTimeout(Duration.ofSeconds(10))
+                    .headers(headers -> headers.set(HttpHeaderNames.AUTHORIZATION, "Bearer " + token));
+            CompressionBenchmark benchmark = new CompressionBenchmark(client, warmup, requests);
+            for (String path : paths) {
+                benchmark.report(protocol, path);
+            }
+        }
+    }
+
+    private void report(HttpProtocol protocol, String path) {
+        Result identity = null;
+        for (String encoding : ENCODINGS) {
+            Result result = run(path, encoding);
+            if (identity == null) {
+                identity = result;
+                log.info("{} {} identity: {} B, p50 {} ms, p99 {} ms",
+                        protocol, path, result.bytes(), millis(result.p50Nanos()), millis(result.p99Nanos()));
+                continue;
+            }
+            log.info("{} {} {}: {} B (Content-Encoding {}), saved {} B ({}%), p50 {} ms, p99 {} ms ({} ms)",
+                    protocol, path, encoding, result.bytes(), result.contentEncoding(),
+                    identity.bytes() - result.bytes(),
+                    identity.bytes() > 0 ? 100 * (identity.bytes() - result.bytes()) / identity.bytes() : 0,
+                    millis(result.p50Nanos()), millis(result.p99Nanos()),
+                    signedMillis(result.p99Nanos() - identity.p99Nanos()));
+        }
+    }
+
+    private Result run(String path, String encoding) {
+        HttpClient encodingClient = client.headers(headers -> headers.set(HttpHeaderNames.ACCEPT_ENCODING, encoding));
+        long[] latencies = new long[requests];
+        int bytes = 0;
+        String contentEncoding = "none";
+        for (int i = 0; i < warmup + requests; i++) {
+            long start = System.nanoTime();
+            Response response = encodingClient.get()
+                    .uri(path)
+                    .responseSingle((headers, body) -> body.asByteArray()
+                            .defaultIfEmpty(new byte[0])
+                            .map(content -> {
+                                if (headers.status().code() != 200) {
+                                    throw new IllegalStateException(path + " returned " + headers.status());
+                                }
+                                String header = headers.responseHeaders().get(HttpHeaderNames.CONTENT_ENCODING);
+                                return new Response(content.length, header != null ? header : "none");
+                            }))
+                    .block();
+            if (i >= warmup) {
+                latencies[i - warmup] = System.nanoTime() - start;
+                bytes = response.bytes();
+                contentEncoding = response.contentEncoding();
+            }
+        }
+        Arrays.sort(latencies);
+        return new Result(bytes, contentEncoding, percentile(latencies, 0.5), percentile(latencies, 0.99));
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * percentile))];
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f", nanos / 1e6);
+    }
+
+    private static String signedMillis(long nanos) {
+        return String.format("%+.2f", nanos / 1e6);
+    }
+
+    private record Response(int bytes, String contentEncoding) {
+    }
+
+    private record Result(int bytes, String contentEncoding, long p50Nanos, long p99Nanos) {
+    }
+}
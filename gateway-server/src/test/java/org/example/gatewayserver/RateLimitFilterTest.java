@@ -0,0 +1,95 @@
+package org.example.gatewayserver;
+
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.gatewayserver.component.JwtAuthenticationFilter;
+import org.example.gatewayserver.component.RateLimitFilter;
+import org.example.gatewayserver.component.TokenBucket;
+import org.example.gatewayserver.config.RateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimitFilterTest {
+    private static final String ROUTE_ID = "task-service";
+
+    private final AtomicInteger forwarded = new AtomicInteger();
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.RouteLimit routeLimit = new RateLimitProperties.RouteLimit();
+        // Пополнение почти нулевое: за время теста токены не возвращаются
+        routeLimit.setUserLimit(new RateLimitProperties.Limit(2, 0.001));
+        routeLimit.setRouteLimit(new RateLimitProperties.Limit(3, 0.001));
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRoutes(Map.of(ROUTE_ID, routeLimit));
+        filter = new RateLimitFilter(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("filter_ShouldKeepRouteBudget_WhenUserOverOwnLimit")
+    public void throttledUserKeepsRouteBudgetTest() {
+        assertThat(send("alice")).isNull();
+        assertThat(send("alice")).isNull();
+        for (int i = 0; i < 5; i++) {
+            assertThat(send("alice")).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        }
+
+        // В корзине маршрута остался третий токен
+        assertThat(send("bob")).isNull();
+        assertThat(send("carol")).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(forwarded.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("refund_ShouldNotExceedCapacity_WhenTokenRefunded")
+    public void tokenBucketRefundTest() {
+        TokenBucket bucket = new TokenBucket(2, 0.001);
+        long now = 0;
+
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now)).isPositive();
+
+        bucket.refund(now);
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now)).isPositive();
+
+        TokenBucket full = new TokenBucket(2, 0.001);
+        full.refund(now);
+        full.refund(now);
+        assertThat(full.tryAcquire(now)).isZero();
+        assertThat(full.tryAcquire(now)).isZero();
+        assertThat(full.tryAcquire(now)).isPositive();
+    }
+
+    private HttpStatusCode send(String user) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/tasks/1"));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id(ROUTE_ID)
+                .uri(URI.create("lb://task-service"))
+                .predicate(e -> true)
+                .build());
+        exchange.getAttributes().put(JwtAuthenticationFilter.CLAIMS_ATTR, Jwts.claims().subject(user).build());
+
+        filter.filter(exchange, e -> {
+            forwarded.incrementAndGet();
+            return Mono.empty();
+        }).block();
+        return exchange.getResponse().getStatusCode();
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.gatewayserver.loadbalancer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Локальная симуляция: три экземпляра, один из них в 30 раз медленнее.
+ * Время виртуальное, поэтому тест детерминирован и выполняется за миллисекунды.
+ */
+public class LatencyAwareLoadBalancerSimulationTest {
+    private static final long MILLIS = 1_000_000L;
+    private static final int REQUESTS = 20_000;
+    private static final long ARRIVAL_INTERVAL = MILLIS;
+
+    private final List<ServiceInstance> instances = List.of(
+            new DefaultServiceInstance("task-service-1", "task-service", "10.0.0.1", 8082, false),
+            new DefaultServiceInstance("task-service-2", "task-service", "10.0.0.2", 8082, false),
+            new DefaultServiceInstance("task-service-3", "task-service", "10.0.0.3", 8082, false));
+
+    @Test
+    @DisplayName("select_ShouldLowerP99BelowRoundRobin_WhenOneInstanceSlow")
+    public void tailLatencyWithSlowInstanceTest() {
+        long roundRobinP99 = simulate(stats -> {
+            int[] next = {0};
+            return available -> available.get(next[0]++ % available.size());
+        });
+        long latencyAwareP99 = simulate(stats -> {
+            Random random = new Random(7);
+            LatencyAwareLoadBalancer loadBalancer = new LatencyAwareLoadBalancer(null, stats, () -> random);
+            return loadBalancer::select;
+        });
+
+        assertThat(roundRobinP99).isGreaterThanOrEqualTo(300 * MILLIS);
+        assertThat(latencyAwareP99).isLessThan(roundRobinP99 / 10);
+    }
+
+    private long simulate(Function<InstanceLatencyStats, Function<List<ServiceInstance>, ServiceInstance>> strategy) {
+        AtomicLong clock = new AtomicLong();
+        InstanceLatencyStats stats = new InstanceLatencyStats(clock::get, Duration.ofSeconds(10), Duration.ofSeconds(1));
+        Function<List<ServiceInstance>, ServiceInstance> chooser = strategy.apply(stats);
+        Random random = new Random(42);
+
+        PriorityQueue<Completion> inFlight = new PriorityQueue<>();
+        List<Long> latencies = new ArrayList<>(REQUESTS);
+
+        for (int i = 0; i < REQUESTS; i++) {
+            long now = i * ARRIVAL_INTERVAL;
+            while (!inFlight.isEmpty() && inFlight.peek().at() <= now) {
+                Completion completion = inFlight.poll();
+                clock.set(completion.at());
+                stats.onComplete(completion.instance(), completion.latency(), false);
+            }
+            clock.set(now);
+
+            ServiceInstance instance = chooser.apply(instances);
+            stats.onStart(instance);
+            long base = instance == instances.get(2) ? 300 * MILLIS : 10 * MILLIS;
+            long latency = base + (long) (random.nextDouble() * base * 0.2);
+            inFlight.add(new Completion(now + latency, instance, latency));
+            latencies.add(latency);
+        }
+
+        Collections.sort(latencies);
+        return latencies.get((int) (latencies.size() * 0.99));
+    }
+
+    private record Completion(long at, ServiceInstance instance, long latency) implements Comparable<Completion> {
+        @Override
+        public int compareTo(Completion other) {
+            return Long.compare(at, other.at);
+        }
+    }
+}
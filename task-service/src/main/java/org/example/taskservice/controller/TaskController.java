@@ -2,12 +2,21 @@ package org.example.taskservice.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.example.taskservice.dto.TaskCreateDTO;
 import org.example.taskservice.dto.TaskDTO;
+import org.example.taskservice.dto.TaskPageDTO;
 import org.example.taskservice.dto.TaskUpdateDTO;
+import org.example.taskservice.model.TaskStatus;
+import org.example.taskservice.repository.TaskCursor;
+import org.example.taskservice.repository.TaskPageQuery;
+import org.example.taskservice.repository.TaskSort;
 import org.example.taskservice.security.JwtService;
 import org.example.taskservice.service.TaskService;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -17,8 +26,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 @Validated
 @RestController
 @RequiredArgsConstructor
@@ -27,6 +42,41 @@ public class TaskController {
     private final TaskService taskService;
     private final JwtService jwtService;
 
+    /**
+     * Задачи вызывающего пользователя постранично. Статусы - как в JSON (pending, in_progress, completed),
+     * диапазоны дат - ISO, нижняя граница включительно. Следующая страница - по cursor из ответа.
+     */
+    @GetMapping
+    public ResponseEntity<TaskPageDTO> getTasks(
+            @RequestParam(value = "status", required = false) List<String> statuses,
+            @RequestParam(value = "createdFrom", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(value = "createdTo", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(value = "updatedFrom", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedFrom,
+            @RequestParam(value = "updatedTo", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedTo,
+            @RequestParam(value = "sort", defaultValue = "updatedAt") String sort,
+            @RequestParam(value = "direction", defaultValue = "desc") String direction,
+            @RequestParam(value = "limit", defaultValue = "20") @Min(1) @Max(100) int limit,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            HttpServletRequest request) {
+        Long userId = Long.parseLong(jwtService.resolveUserId(request));
+        TaskSort taskSort = TaskSort.fromParam(sort);
+        boolean descending = Sort.Direction.fromString(direction).isDescending();
+        Set<TaskStatus> statusFilter = statuses == null ? Set.of() : statuses.stream()
+                .map(TaskStatus::fromString)
+                .collect(Collectors.toSet());
+
+        TaskPageQuery query = new TaskPageQuery(userId, statusFilter,
+                createdFrom, createdTo, updatedFrom, updatedTo,
+                taskSort, descending,
+                cursor != null ? TaskCursor.decode(cursor, taskSort, descending) : null,
+                limit);
+        return ResponseEntity.ok(taskService.getTasks(query));
+    }
+
     @GetMapping("/{taskId}")
     public ResponseEntity<TaskDTO> getTask(@PathVariable("taskId") Long taskId) {
         TaskDTO taskDTO = taskService.getTask(taskId);
@@ -36,8 +86,7 @@ public class TaskController {
     @PostMapping("/")
     public ResponseEntity<TaskDTO> createTask(@Valid @RequestBody TaskCreateDTO createDTO,
                                               HttpServletRequest request) {
-        String jwt = jwtService.resolveToken(request);
-        String userId = jwtService.extractUserId(jwt);
+        String userId = jwtService.resolveUserId(request);
 
         TaskDTO taskDTO = taskService.createTask(Long.parseLong(userId), createDTO);
         return ResponseEntity.status(HttpStatus.CREATED)
@@ -12,6 +12,7 @@ import java.time.LocalDateTime;
 @Value
 public class TaskDTO {
     Long id;
+    Long userId;
     String title;
     String description;
     TaskStatus status;
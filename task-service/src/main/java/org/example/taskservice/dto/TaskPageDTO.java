@@ -0,0 +1,14 @@
+package org.example.taskservice.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Страница задач; nextCursor передаётся в следующий запрос, null - страниц больше нет.
+ */
+@Value
+public class TaskPageDTO {
+    List<TaskDTO> items;
+    String nextCursor;
+}
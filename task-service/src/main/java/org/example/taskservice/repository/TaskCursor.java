@@ -0,0 +1,64 @@
+package org.example.taskservice.repository;
+
+import jakarta.validation.ValidationException;
+import org.example.taskservice.model.Task;
+import org.example.taskservice.model.TaskStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Позиция в списке задач: значения ключа сортировки последней отданной задачи.
+ * Клиенту отдаётся непрозрачной строкой; сортировка зашита в курсор, и курсор
+ * другой сортировки отклоняется.
+ */
+public record TaskCursor(TaskSort sort, boolean descending, TaskStatus status, LocalDateTime timestamp, Long id) {
+    private static final String SEPARATOR = "|";
+
+    public static TaskCursor after(Task task, TaskSort sort, boolean descending) {
+        LocalDateTime timestamp = sort == TaskSort.CREATED_AT ? task.getCreatedAt() : task.getUpdatedAt();
+        TaskStatus status = sort == TaskSort.STATUS ? task.getStatus() : null;
+        return new TaskCursor(sort, descending, status, timestamp, task.getId());
+    }
+
+    /**
+     * Значения ключа в порядке {@link TaskSort#keys()}.
+     */
+    public Object[] keyValues() {
+        return sort == TaskSort.STATUS
+                ? new Object[]{status, timestamp, id}
+                : new Object[]{timestamp, id};
+    }
+
+    public String encode() {
+        String value = String.join(SEPARATOR,
+                sort.name(),
+                descending ? "D" : "A",
+                status != null ? status.name() : "",
+                timestamp.toString(),
+                id.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String cursor, TaskSort sort, boolean descending) {
+        TaskCursor decoded;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\|", -1);
+            decoded = new TaskCursor(
+                    TaskSort.valueOf(parts[0]),
+                    "D".equals(parts[1]),
+                    parts[2].isEmpty() ? null : TaskStatus.valueOf(parts[2]),
+                    LocalDateTime.parse(parts[3]),
+                    Long.parseLong(parts[4]));
+        } catch (RuntimeException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+        if (decoded.sort() != sort || decoded.descending() != descending
+                || (sort == TaskSort.STATUS && decoded.status() == null)) {
+            throw new ValidationException("Cursor does not match the requested sort");
+        }
+        return decoded;
+    }
+}
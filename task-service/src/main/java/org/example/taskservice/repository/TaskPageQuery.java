@@ -0,0 +1,22 @@
+package org.example.taskservice.repository;
+
+import org.example.taskservice.model.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Страница задач пользователя. Фильтры необязательны; границы "from" включительно, "to" - нет.
+ * after - позиция последней задачи предыдущей страницы.
+ */
+public record TaskPageQuery(Long userId,
+                            Set<TaskStatus> statuses,
+                            LocalDateTime createdFrom,
+                            LocalDateTime createdTo,
+                            LocalDateTime updatedFrom,
+                            LocalDateTime updatedTo,
+                            TaskSort sort,
+                            boolean descending,
+                            TaskCursor after,
+                            int limit) {
+}
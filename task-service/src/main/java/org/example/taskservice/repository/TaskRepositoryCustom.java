@@ -0,0 +1,9 @@
+package org.example.taskservice.repository;
+
+import org.example.taskservice.model.Task;
+
+import java.util.List;
+
+public interface TaskRepositoryCustom {
+    List<Task> findPage(TaskPageQuery query);
+}
@@ -0,0 +1,73 @@
+package org.example.taskservice.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.example.taskservice.model.Task;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Keyset-пагинация: вместо OFFSET условие "ключ сортировки после курсора" сравнением
+ * кортежей (row value), которое PostgreSQL превращает в поиск по индексу
+ * (user_id, ключ сортировки, id). Стоимость страницы не зависит от её номера.
+ * В запрос попадают только заданные фильтры, чтобы план не зависел от NULL-параметров.
+ * Возвращает до limit + 1 задач.
+ */
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Task> findPage(TaskPageQuery query) {
+        StringBuilder jpql = new StringBuilder("select t from Task t where t.userId = :userId");
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("userId", query.userId());
+
+        if (query.statuses() != null && !query.statuses().isEmpty()) {
+            jpql.append(" and t.status in :statuses");
+            parameters.put("statuses", query.statuses());
+        }
+        appendRange(jpql, parameters, "createdAt", query.createdFrom(), query.createdTo());
+        appendRange(jpql, parameters, "updatedAt", query.updatedFrom(), query.updatedTo());
+
+        List<String> keys = query.sort().keys();
+        if (query.after() != null) {
+            Object[] values = query.after().keyValues();
+            jpql.append(" and (")
+                    .append(keys.stream().map(key -> "t." + key).collect(Collectors.joining(", ")))
+                    .append(query.descending() ? ") < (" : ") > (")
+                    .append(IntStream.range(0, keys.size()).mapToObj(i -> ":k" + i).collect(Collectors.joining(", ")))
+                    .append(")");
+            for (int i = 0; i < keys.size(); i++) {
+                parameters.put("k" + i, values[i]);
+            }
+        }
+
+        String direction = query.descending() ? " desc" : " asc";
+        jpql.append(" order by ")
+                .append(keys.stream().map(key -> "t." + key + direction).collect(Collectors.joining(", ")));
+
+        TypedQuery<Task> typedQuery = entityManager.createQuery(jpql.toString(), Task.class)
+                // Лишняя строка показывает, есть ли следующая страница
+                .setMaxResults(query.limit() + 1);
+        parameters.forEach(typedQuery::setParameter);
+        return typedQuery.getResultList();
+    }
+
+    private static void appendRange(StringBuilder jpql, Map<String, Object> parameters,
+                                    String field, Object from, Object to) {
+        if (from != null) {
+            jpql.append(" and t.").append(field).append(" >= :").append(field).append("From");
+            parameters.put(field + "From", from);
+        }
+        if (to != null) {
+            jpql.append(" and t.").append(field).append(" < :").append(field).append("To");
+            parameters.put(field + "To", to);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.taskservice.repository;
+
+import java.util.List;
+
+/**
+ * Поля сортировки списка задач. Ключ keyset-пагинации - поля сортировки плюс id,
+ * чтобы порядок был строгим; под каждый ключ есть индекс, начинающийся с user_id.
+ */
+public enum TaskSort {
+    CREATED_AT("createdAt", List.of("createdAt", "id")),
+    UPDATED_AT("updatedAt", List.of("updatedAt", "id")),
+    // Статусы упорядочены по имени в БД: COMPLETED, IN_PROGRESS, PENDING
+    STATUS("status", List.of("status", "updatedAt", "id"));
+
+    private final String param;
+    private final List<String> keys;
+
+    TaskSort(String param, List<String> keys) {
+        this.param = param;
+        this.keys = keys;
+    }
+
+    public List<String> keys() {
+        return keys;
+    }
+
+    public static TaskSort fromParam(String param) {
+        for (TaskSort sort : values()) {
+            if (sort.param.equalsIgnoreCase(param)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unknown sort: " + param);
+    }
+}
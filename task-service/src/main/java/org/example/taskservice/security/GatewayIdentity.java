@@ -0,0 +1,8 @@
+package org.example.taskservice.security;
+
+/**
+ * Идентичность пользователя, переданная шлюзом в подписанных заголовках X-User-*.
+ */
+public record GatewayIdentity(String userId, String email, String role, long expiresAt) {
+    public static final String ATTRIBUTE = GatewayIdentity.class.getName();
+}
@@ -0,0 +1,91 @@
+package org.example.taskservice.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Проверяет заголовки X-User-*, подписанные шлюзом в режиме доверенного шлюза.
+ * Вместо разбора JWT считается один HMAC-SHA256 над короткой строкой.
+ */
+@Component
+public class GatewayIdentityVerifier {
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String EMAIL_HEADER = "X-User-Email";
+    public static final String ROLE_HEADER = "X-User-Role";
+    public static final String EXPIRES_HEADER = "X-User-Expires";
+    public static final String SIGNATURE_HEADER = "X-User-Signature";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final boolean enabled;
+    private final ThreadLocal<Mac> mac;
+
+    public GatewayIdentityVerifier(@Value("${gateway.identity.enabled:false}") boolean enabled,
+                                   @Value("${gateway.identity.secret:}") String secret) {
+        if (enabled && secret.isBlank()) {
+            throw new IllegalStateException("gateway.identity.secret must be set when gateway.identity.enabled=true");
+        }
+        this.enabled = enabled;
+        SecretKeySpec key = enabled ? new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM) : null;
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot initialize " + ALGORITHM, e);
+            }
+        });
+    }
+
+    /**
+     * Возвращает идентичность из заголовков или {@code null}, если режим выключен,
+     * заголовков нет, подпись неверна или срок действия истёк.
+     */
+    public GatewayIdentity verify(HttpServletRequest request) {
+        if (!enabled) {
+            return null;
+        }
+
+        String signature = request.getHeader(SIGNATURE_HEADER);
+        String userId = request.getHeader(USER_ID_HEADER);
+        String email = request.getHeader(EMAIL_HEADER);
+        String role = request.getHeader(ROLE_HEADER);
+        String expires = request.getHeader(EXPIRES_HEADER);
+        if (signature == null || userId == null || email == null || role == null || expires == null) {
+            return null;
+        }
+
+        String payload = userId + '\n' + email + '\n' + role + '\n' + expires;
+        byte[] expected = mac.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        byte[] actual;
+        try {
+            actual = Base64.getUrlDecoder().decode(signature);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return null;
+        }
+
+        long expiresAt;
+        try {
+            expiresAt = Long.parseLong(expires);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (expiresAt * 1000 < System.currentTimeMillis()) {
+            return null;
+        }
+
+        return new GatewayIdentity(userId, email, role, expiresAt);
+    }
+}
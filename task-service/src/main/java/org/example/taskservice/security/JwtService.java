@@ -1,41 +1,86 @@
 package org.example.taskservice.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.http.HttpServletRequest;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
 import java.util.Date;
 
 @Service
 public class JwtService {
-    @Value("${jwt.secret}")
-    private String secret;
+    /**
+     * Атрибут запроса с claims, проверенными в {@link JwtAuthenticationFilter}.
+     */
+    public static final String CLAIMS_ATTRIBUTE = JwtService.class.getName() + ".claims";
+
+    // Claim с назначением токена: refresh-токен вместо access-токена не принимается
+    private static final String TOKEN_USE_CLAIM = "token_use";
+    private static final String ACCESS_TOKEN = "access";
+
+    // Парсер неизменяем и потокобезопасен, поэтому создаётся один раз; ключ выбирается по kid
+    private final JwtParser jwtParser;
+
+    public JwtService(JwksKeyLocator keyLocator) {
+        this.jwtParser = Jwts.parser()
+                .keyLocator(keyLocator)
+                .build();
+    }
+
+    /**
+     * Единственная проверка подписи токена (Ed25519, около миллисекунды); дальше работать с полученными claims.
+     */
+    public Claims extractAllClaims(String token) {
+        return jwtParser.parseSignedClaims(token)
+                .getPayload();
+    }
 
     public String extractUserName(String token) {
-        return extractClaims(token).getSubject();
+        return extractAllClaims(token).getSubject();
     }
 
     public boolean validateToken(String token, UserDetails userDetails) {
         try {
-            String userName = extractUserName(token);
-            return userName.equals(userDetails.getUsername()) && !isExpiredToken(token);
+            return isValid(extractAllClaims(token), userDetails);
         } catch (Exception e) {
             return false;
         }
     }
 
-    public boolean isExpiredToken(String token) {
-        return extractClaims(token).getExpiration().before(new Date());
+    public boolean isValid(Claims claims, UserDetails userDetails) {
+        return isAccessToken(claims)
+                && claims.getSubject() != null
+                && claims.getSubject().equals(userDetails.getUsername())
+                && !isExpired(claims);
+    }
+
+    public boolean isAccessToken(Claims claims) {
+        return ACCESS_TOKEN.equals(claims.get(TOKEN_USE_CLAIM, String.class));
+    }
+
+    public boolean isExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     public String extractUserId(String token) {
-        return extractClaims(token).get("userId", String.class);
+        return extractAllClaims(token).get("userId", String.class);
+    }
+
+    /**
+     * Идентификатор пользователя из заголовков доверенного шлюза или из claims, уже проверенных фильтром.
+     * JWT разбирается заново, только если фильтр его не проверял.
+     */
+    public String resolveUserId(HttpServletRequest request) {
+        if (request.getAttribute(GatewayIdentity.ATTRIBUTE) instanceof GatewayIdentity identity) {
+            return identity.userId();
+        }
+        if (request.getAttribute(CLAIMS_ATTRIBUTE) instanceof Claims claims) {
+            return claims.get("userId", String.class);
+        }
+        return extractUserId(resolveToken(request));
     }
 
     public String resolveToken(HttpServletRequest request) {
@@ -45,16 +90,4 @@ public class JwtService {
         }
         return null;
     }
-
-    private Claims extractClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    private SecretKey getKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
-    }
 }
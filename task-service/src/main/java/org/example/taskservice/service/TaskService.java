@@ -3,12 +3,18 @@ package org.example.taskservice.service;
 import lombok.RequiredArgsConstructor;
 import org.example.taskservice.dto.TaskCreateDTO;
 import org.example.taskservice.dto.TaskDTO;
+import org.example.taskservice.dto.TaskPageDTO;
 import org.example.taskservice.dto.TaskUpdateDTO;
 import org.example.taskservice.exception.ResourceNotFoundException;
 import org.example.taskservice.mapper.TaskMapper;
 import org.example.taskservice.model.Task;
+import org.example.taskservice.repository.TaskCursor;
+import org.example.taskservice.repository.TaskPageQuery;
 import org.example.taskservice.repository.TaskRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -22,6 +28,19 @@ public class TaskService {
         return taskMapper.toTaskDTO(task);
     }
 
+    @Transactional(readOnly = true)
+    public TaskPageDTO getTasks(TaskPageQuery query) {
+        List<Task> tasks = taskRepository.findPage(query);
+        String nextCursor = null;
+        if (tasks.size() > query.limit()) {
+            tasks = tasks.subList(0, query.limit());
+            nextCursor = TaskCursor.after(tasks.get(tasks.size() - 1), query.sort(), query.descending()).encode();
+        }
+        return new TaskPageDTO(tasks.stream()
+                .map(taskMapper::toTaskDTO)
+                .toList(), nextCursor);
+    }
+
     public TaskDTO createTask(Long userId,TaskCreateDTO createDTO) {
         Task task = taskMapper.toEntity(createDTO);
         task.setUserId(userId);
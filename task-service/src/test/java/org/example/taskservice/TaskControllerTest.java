@@ -5,16 +5,21 @@ import jakarta.servlet.http.HttpServletRequest;
 import org.example.taskservice.controller.TaskController;
 import org.example.taskservice.dto.TaskCreateDTO;
 import org.example.taskservice.dto.TaskDTO;
+import org.example.taskservice.dto.TaskPageDTO;
 import org.example.taskservice.dto.TaskUpdateDTO;
 import org.example.taskservice.exception.ResourceNotFoundException;
 import org.example.taskservice.handler.GlobalExceptionHandler;
 import org.example.taskservice.model.TaskStatus;
+import org.example.taskservice.repository.TaskCursor;
+import org.example.taskservice.repository.TaskPageQuery;
+import org.example.taskservice.repository.TaskSort;
 import org.example.taskservice.security.JwtService;
 import org.example.taskservice.service.TaskService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -25,10 +30,15 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -66,6 +76,7 @@ public class TaskControllerTest {
     @DisplayName("get valid task and returned status OK")
     public void getTaskTest() throws Exception {
         TaskDTO taskDTO = new TaskDTO(
+                1L,
                 1L,
                 "new",
                 "first task",
@@ -101,6 +112,7 @@ public class TaskControllerTest {
                 TaskStatus.PENDING);
 
         TaskDTO expectedTask = new TaskDTO(
+                1L,
                 1L,
                 createDTO.getTitle(),
                 createDTO.getDescription(),
@@ -108,10 +120,7 @@ public class TaskControllerTest {
                 LocalDateTime.now(),
                 LocalDateTime.now());
 
-        String jwt = "superToken";
-
-        when(jwtService.resolveToken(any(HttpServletRequest.class))).thenReturn(jwt);
-        when(jwtService.extractUserId(any(String.class))).thenReturn("1");
+        when(jwtService.resolveUserId(any(HttpServletRequest.class))).thenReturn("1");
         when(taskService.createTask(any(Long.class), any(TaskCreateDTO.class)))
                 .thenReturn(expectedTask);
 
@@ -130,10 +139,7 @@ public class TaskControllerTest {
                 null,
                 TaskStatus.PENDING);
 
-        String jwt = "superToken";
-
-        when(jwtService.resolveToken(any(HttpServletRequest.class))).thenReturn(jwt);
-        when(jwtService.extractUserId(any(String.class))).thenReturn("1");
+        when(jwtService.resolveUserId(any(HttpServletRequest.class))).thenReturn("1");
         when(taskService.createTask(any(Long.class), any(TaskCreateDTO.class)))
                 .thenThrow(new RuntimeException("Bad request"));
 
@@ -152,6 +158,7 @@ public class TaskControllerTest {
                 ,TaskStatus.COMPLETED);
 
         TaskDTO expectedTask = new TaskDTO(
+                1L,
                 1L,
                 updateDTO.getTitle(),
                 updateDTO.getDescription(),
@@ -206,4 +213,74 @@ public class TaskControllerTest {
                         .contentType(APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    @DisplayName("list tasks of the caller with filters and returned next cursor")
+    public void getTasksTest() throws Exception {
+        TaskDTO taskDTO = new TaskDTO(
+                7L,
+                1L,
+                "new",
+                "first task",
+                TaskStatus.PENDING,
+                LocalDateTime.now(),
+                LocalDateTime.now());
+        when(jwtService.resolveUserId(any(HttpServletRequest.class))).thenReturn("1");
+        when(taskService.getTasks(any(TaskPageQuery.class)))
+                .thenReturn(new TaskPageDTO(List.of(taskDTO), "next-page"));
+
+        mockMvc.perform(get("/tasks")
+                        .param("status", "pending", "in_progress")
+                        .param("updatedFrom", "2024-01-01T00:00:00")
+                        .param("sort", "status")
+                        .param("direction", "asc")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(7L))
+                .andExpect(jsonPath("$.nextCursor").value("next-page"));
+
+        ArgumentCaptor<TaskPageQuery> query = ArgumentCaptor.forClass(TaskPageQuery.class);
+        verify(taskService).getTasks(query.capture());
+        assertThat(query.getValue().userId()).isEqualTo(1L);
+        assertThat(query.getValue().statuses()).isEqualTo(Set.of(TaskStatus.PENDING, TaskStatus.IN_PROGRESS));
+        assertThat(query.getValue().updatedFrom()).isEqualTo(LocalDateTime.of(2024, 1, 1, 0, 0));
+        assertThat(query.getValue().sort()).isEqualTo(TaskSort.STATUS);
+        assertThat(query.getValue().descending()).isFalse();
+        assertThat(query.getValue().after()).isNull();
+        assertThat(query.getValue().limit()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("list tasks after cursor continues from its position")
+    public void getTasksNextPageTest() throws Exception {
+        TaskCursor cursor = new TaskCursor(TaskSort.UPDATED_AT, true, null,
+                LocalDateTime.of(2024, 1, 15, 10, 0, 0, 123456000), 42L);
+        when(jwtService.resolveUserId(any(HttpServletRequest.class))).thenReturn("1");
+        when(taskService.getTasks(any(TaskPageQuery.class))).thenReturn(new TaskPageDTO(List.of(), null));
+
+        mockMvc.perform(get("/tasks").param("cursor", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isEmpty())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        ArgumentCaptor<TaskPageQuery> query = ArgumentCaptor.forClass(TaskPageQuery.class);
+        verify(taskService).getTasks(query.capture());
+        assertThat(query.getValue().after()).isEqualTo(cursor);
+    }
+
+    @Test
+    @DisplayName("list tasks with cursor of another sort and returned status BAD REQUEST")
+    public void getTasksInvalidCursorTest() throws Exception {
+        String cursor = new TaskCursor(TaskSort.CREATED_AT, true, null, LocalDateTime.now(), 42L).encode();
+        when(jwtService.resolveUserId(any(HttpServletRequest.class))).thenReturn("1");
+
+        mockMvc.perform(get("/tasks")
+                        .param("sort", "updatedAt")
+                        .param("cursor", cursor))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/tasks").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, never()).getTasks(any(TaskPageQuery.class));
+    }
 }
@@ -2,6 +2,7 @@ package org.example.userservice.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.userservice.dto.UserBatchCreateDTO;
 import org.example.userservice.dto.UserCreateDTO;
 import org.example.userservice.dto.UserDTO;
 import org.example.userservice.dto.UserUpdateDTO;
@@ -59,6 +60,12 @@ public class UserController {
                 .body(userDTO);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Void> createUsers(@Valid @RequestBody UserBatchCreateDTO batchDTO) {
+        userService.createUsers(batchDTO);
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/{id}")
     public ResponseEntity<UserDTO> updateUser(@Valid @RequestBody UserUpdateDTO updateDTO,
                                               @PathVariable Long id) {
@@ -0,0 +1,16 @@
+package org.example.userservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Пачка профилей от outbox-релея auth-service
+ */
+@Value
+public class UserBatchCreateDTO {
+    @NotEmpty
+    List<@Valid UserCreateDTO> users;
+}
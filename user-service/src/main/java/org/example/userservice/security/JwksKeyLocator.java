@@ -0,0 +1,128 @@
+package org.example.userservice.security;
+
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.Locator;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.Jwks;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Открытые ключи подписи из JWKS auth-service, обновляются в фоне. Для неизвестного kid
+ * ключи перечитываются в потоке запроса (не чаще min-refresh-interval), чтобы токен нового
+ * ключа не отклонялся до планового обновления.
+ */
+@Slf4j
+@Component
+public class JwksKeyLocator implements Locator<Key> {
+    private final RestClient restClient;
+    private final String jwksUri;
+    private final Duration refreshInterval;
+    private final long minRefreshIntervalNanos;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jwks-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private long lastRefresh;
+
+    public JwksKeyLocator(@LoadBalanced RestClient.Builder restClientBuilder,
+                          @Value("${jwt.jwks.uri:http://auth-service/auth/.well-known/jwks.json}") String jwksUri,
+                          @Value("${jwt.jwks.refresh-interval:5m}") Duration refreshInterval,
+                          @Value("${jwt.jwks.min-refresh-interval:10s}") Duration minRefreshInterval,
+                          @Value("${jwt.jwks.timeout:2s}") Duration timeout) {
+        // Внеочередное обновление идёт в потоке запроса - ждать auth-service дольше таймаута нельзя
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = restClientBuilder
+                .requestFactory(requestFactory)
+                .build();
+        this.jwksUri = jwksUri;
+        this.refreshInterval = refreshInterval;
+        this.minRefreshIntervalNanos = minRefreshInterval.toNanos();
+        this.lastRefresh = System.nanoTime() - minRefreshIntervalNanos;
+    }
+
+    @Override
+    public Key locate(Header header) {
+        String keyId = header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null;
+        if (keyId != null) {
+            PublicKey key = keys.get(keyId);
+            if (key == null && refreshIfAllowed()) {
+                key = keys.get(keyId);
+            }
+            if (key == null) {
+                throw new UnsupportedJwtException("Unknown signing key: " + keyId);
+            }
+            return key;
+        }
+        throw new UnsupportedJwtException("Token has no key id");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRefresh() {
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stopRefresh() {
+        scheduler.shutdownNow();
+    }
+
+    private synchronized boolean refreshIfAllowed() {
+        if (System.nanoTime() - lastRefresh < minRefreshIntervalNanos) {
+            return false;
+        }
+        refresh();
+        return true;
+    }
+
+    private synchronized void refresh() {
+        lastRefresh = System.nanoTime();
+        try {
+            Map<String, PublicKey> loaded = parse(restClient.get()
+                    .uri(jwksUri)
+                    .retrieve()
+                    .body(String.class));
+            // Пустой набор - скорее сбой auth-service, чем отзыв всех ключей
+            if (!loaded.isEmpty()) {
+                if (!loaded.keySet().equals(keys.keySet())) {
+                    log.info("JWKS updated, signing keys: {}", loaded.keySet());
+                }
+                keys = loaded;
+            }
+        } catch (Exception e) {
+            log.warn("JWKS refresh failed: {}", e.getMessage());
+        }
+    }
+
+    static Map<String, PublicKey> parse(String json) {
+        Map<String, PublicKey> loaded = new HashMap<>();
+        for (Jwk<?> jwk : Jwks.setParser().build().parse(json).getKeys()) {
+            if (jwk.getId() != null && jwk.toKey() instanceof PublicKey publicKey) {
+                loaded.put(jwk.getId(), publicKey);
+            }
+        }
+        return Map.copyOf(loaded);
+    }
+}
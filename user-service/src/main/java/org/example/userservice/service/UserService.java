@@ -1,6 +1,7 @@
 package org.example.userservice.service;
 
 import lombok.RequiredArgsConstructor;
+import org.example.userservice.dto.UserBatchCreateDTO;
 import org.example.userservice.dto.UserCreateDTO;
 import org.example.userservice.dto.UserDTO;
 import org.example.userservice.dto.UserUpdateDTO;
@@ -9,6 +10,11 @@ import org.example.userservice.mapper.UserMapper;
 import org.example.userservice.model.UserProfile;
 import org.example.userservice.repository.UserRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -27,6 +33,27 @@ public class UserService {
         return userMapper.toUserDTO(userRepository.save(userProfile));
     }
 
+    /**
+     * Идемпотентное создание: профили с уже существующим id пропускаются,
+     * поэтому повторная доставка той же пачки ничего не меняет.
+     */
+    @Transactional
+    public int createUsers(UserBatchCreateDTO batchDTO) {
+        List<Long> ids = batchDTO.getUsers().stream()
+                .map(UserCreateDTO::getId)
+                .toList();
+        Set<Long> knownIds = userRepository.findAllById(ids).stream()
+                .map(UserProfile::getId)
+                .collect(Collectors.toSet());
+
+        List<UserProfile> created = batchDTO.getUsers().stream()
+                .filter(dto -> knownIds.add(dto.getId()))
+                .map(userMapper::toEntity)
+                .toList();
+        userRepository.saveAll(created);
+        return created.size();
+    }
+
     public UserDTO updateUser(UserUpdateDTO updateDTO, Long id) {
         UserProfile userProfile = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User with id: " + id + " not found."));
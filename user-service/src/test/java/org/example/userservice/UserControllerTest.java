@@ -2,6 +2,7 @@ package org.example.userservice;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.userservice.controller.UserController;
+import org.example.userservice.dto.UserBatchCreateDTO;
 import org.example.userservice.dto.UserCreateDTO;
 import org.example.userservice.dto.UserDTO;
 import org.example.userservice.dto.UserUpdateDTO;
@@ -23,10 +24,12 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -137,6 +140,23 @@ public class UserControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("create users batch and returned status NO CONTENT")
+    public void createUsersBatchTest() throws Exception {
+        UserBatchCreateDTO batchDTO = new UserBatchCreateDTO(List.of(
+                new UserCreateDTO(1L, "Mark", "mark@mail.ru", RoleUser.USER),
+                new UserCreateDTO(2L, "Anna", "anna@mail.ru", RoleUser.ADMIN)));
+
+        when(userService.createUsers(any(UserBatchCreateDTO.class))).thenReturn(2);
+
+        mockMvc.perform(post(BASE_PATH + "batch")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batchDTO)))
+                .andExpect(status().isNoContent());
+
+        verify(userService).createUsers(any(UserBatchCreateDTO.class));
+    }
+
     @Test
     @DisplayName("update user and returned status Ok")
     public void updateUserTest() throws Exception {
@@ -0,0 +1,100 @@
+package org.example.userservice;
+
+import org.example.userservice.dto.UserBatchCreateDTO;
+import org.example.userservice.dto.UserCreateDTO;
+import org.example.userservice.mapper.UserMapper;
+import org.example.userservice.model.RoleUser;
+import org.example.userservice.model.UserProfile;
+import org.example.userservice.repository.UserRepository;
+import org.example.userservice.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class UserServiceTest {
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @InjectMocks
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        when(userMapper.toEntity(any(UserCreateDTO.class))).thenAnswer(invocation -> {
+            UserCreateDTO dto = invocation.getArgument(0);
+            return profile(dto.getId());
+        });
+    }
+
+    @Test
+    @DisplayName("createUsers_ShouldSkipProfiles_WhenIdsAlreadyExist")
+    public void createUsersSkipsExistingIdsTest() {
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of(profile(2L)));
+
+        int created = userService.createUsers(new UserBatchCreateDTO(List.of(user(1L), user(2L), user(3L))));
+
+        assertThat(created).isEqualTo(2);
+        assertThat(savedIds()).containsExactly(1L, 3L);
+    }
+
+    @Test
+    @DisplayName("createUsers_ShouldCreateNothing_WhenBatchRedelivered")
+    public void createUsersRedeliveredBatchTest() {
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of(profile(1L), profile(2L)));
+
+        int created = userService.createUsers(new UserBatchCreateDTO(List.of(user(1L), user(2L))));
+
+        assertThat(created).isZero();
+        assertThat(savedIds()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("createUsers_ShouldCreateOnce_WhenIdsDuplicatedInBatch")
+    public void createUsersDuplicateIdsInBatchTest() {
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of());
+
+        int created = userService.createUsers(new UserBatchCreateDTO(List.of(user(1L), user(1L), user(2L))));
+
+        assertThat(created).isEqualTo(2);
+        assertThat(savedIds()).containsExactly(1L, 2L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> savedIds() {
+        ArgumentCaptor<List<UserProfile>> saved = ArgumentCaptor.forClass(List.class);
+        verify(userRepository).saveAll(saved.capture());
+        return saved.getValue().stream()
+                .map(UserProfile::getId)
+                .toList();
+    }
+
+    private static UserCreateDTO user(long id) {
+        return new UserCreateDTO(id, "user" + id, "user" + id + "@example.com", RoleUser.USER);
+    }
+
+    private static UserProfile profile(long id) {
+        UserProfile profile = new UserProfile();
+        profile.setId(id);
+        return profile;
+    }
+}